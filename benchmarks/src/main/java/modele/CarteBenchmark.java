@@ -0,0 +1,196 @@
+package modele;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks des chemins critiques de {@link Carte} : construction depuis des lignes,
+ * création depuis un {@link Niveau} déjà analysé, copie, déplacements et poussées, détection de fin de partie et rendu texte,
+ * pour plusieurs tailles de carte.
+ * <p>
+ * Les benchmarks de mouvement jouent {@value #MOUVEMENTS} mouvements par invocation,
+ * puis la carte est ramenée à son état initial par annulation, hors mesure,
+ * pour que le journal des mouvements ne grossisse pas.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CarteBenchmark {
+
+    /**
+     * Nombre de mouvements joués par invocation des benchmarks de mouvement.
+     */
+    private static final int MOUVEMENTS = 1000;
+
+    /**
+     * Cycle de dix mouvements qui pousse la caisse du robot vers la droite,
+     * la contourne, la repousse vers la gauche et revient à la position de départ.
+     */
+    private static final Direction[] CYCLE_POUSSEES = {
+        Direction.DROITE, Direction.BAS, Direction.DROITE, Direction.DROITE, Direction.HAUT,
+        Direction.GAUCHE, Direction.BAS, Direction.GAUCHE, Direction.GAUCHE, Direction.HAUT
+    };
+
+    /**
+     * Largeur et hauteur de la carte.
+     */
+    @Param({"16", "64", "200"})
+    public int taille;
+
+    /**
+     * Lignes de la carte, telles que fournies par {@link Lecture}.
+     */
+    private List<String> lignes;
+
+    /**
+     * Niveau analysé une fois à partir des lignes.
+     */
+    private Niveau niveau;
+
+    /**
+     * Carte utilisée par les benchmarks qui ne la modifient pas.
+     */
+    private Carte carte;
+
+    /**
+     * Prépare les lignes et la carte de la taille demandée.
+     */
+    @Setup(Level.Trial)
+    public void preparer() {
+        lignes = CartesSynthetiques.lignes(taille);
+        niveau = new Niveau(lignes);
+        carte = new Carte(niveau);
+    }
+
+    /**
+     * État des benchmarks de mouvement : une carte remise à son état initial avant
+     * chaque invocation. Il est séparé de l'état principal pour que cette remise à zéro
+     * ne s'applique pas aux benchmarks très courts.
+     */
+    @State(Scope.Thread)
+    public static class CarteJouee {
+
+        /**
+         * Carte sur laquelle les mouvements sont joués.
+         */
+        private Carte carte;
+
+        /**
+         * Crée la carte à la taille du benchmark.
+         *
+         * @param benchmark L'état principal, qui fournit les lignes de la carte.
+         */
+        @Setup(Level.Trial)
+        public void preparer(CarteBenchmark benchmark) {
+            carte = new Carte(benchmark.lignes);
+        }
+
+        /**
+         * Ramène la carte à son état initial en annulant les mouvements de l'invocation précédente.
+         */
+        @Setup(Level.Invocation)
+        public void reinitialiser() {
+            while (carte.annuler()) {
+                // Annule tous les mouvements joués.
+            }
+        }
+    }
+
+    /**
+     * Construction d'une carte à partir de ses lignes.
+     *
+     * @return La carte construite.
+     */
+    @Benchmark
+    public Carte construction() {
+        return new Carte(lignes);
+    }
+
+    /**
+     * Création d'une partie neuve à partir d'un niveau déjà analysé, comme au redémarrage d'un niveau.
+     *
+     * @return La carte créée.
+     */
+    @Benchmark
+    public Carte creationDepuisNiveau() {
+        return new Carte(niveau);
+    }
+
+    /**
+     * Copie d'une carte dans son état courant.
+     *
+     * @return La copie.
+     */
+    @Benchmark
+    public Carte copie() {
+        return carte.copier();
+    }
+
+    /**
+     * Déplacements simples du robot, alternativement vers le bas et vers le haut.
+     *
+     * @param jouee La carte sur laquelle jouer.
+     * @param trou Consommateur des résultats.
+     */
+    @Benchmark
+    @OperationsPerInvocation(MOUVEMENTS)
+    public void deplacement(CarteJouee jouee, Blackhole trou) {
+        Carte carte = jouee.carte;
+        for (int i = 0; i < MOUVEMENTS; i += 2) {
+            trou.consume(carte.deplacerRobot(Direction.BAS));
+            trou.consume(carte.deplacerRobot(Direction.HAUT));
+        }
+    }
+
+    /**
+     * Cycles de poussées : deux poussées et huit déplacements simples par cycle.
+     *
+     * @param jouee La carte sur laquelle jouer.
+     * @param trou Consommateur des résultats.
+     */
+    @Benchmark
+    @OperationsPerInvocation(MOUVEMENTS)
+    public void poussee(CarteJouee jouee, Blackhole trou) {
+        Carte carte = jouee.carte;
+        for (int i = 0; i < MOUVEMENTS; i++) {
+            trou.consume(carte.deplacerRobot(CYCLE_POUSSEES[i % CYCLE_POUSSEES.length]));
+        }
+    }
+
+    /**
+     * Détection de la fin de partie.
+     *
+     * @return true si toutes les caisses sont placées.
+     */
+    @Benchmark
+    public boolean finDePartie() {
+        return carte.finDePartie();
+    }
+
+    /**
+     * Rendu texte de la carte.
+     *
+     * @return Le texte de la carte.
+     */
+    @Benchmark
+    public String rendu() {
+        return carte.toString();
+    }
+}
@@ -0,0 +1,54 @@
+package modele;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * La classe CartesSynthetiques construit des cartes carrées de taille quelconque
+ * pour les benchmarks, au même format que les lignes fournies par {@link Lecture}.
+ * <p>
+ * La carte est entourée de murs. Son intérieur contient une grille régulière de caisses,
+ * de destinations et de murs, et un couloir libre en bas à gauche dans lequel le robot
+ * démarre, avec une caisse à sa droite.
+ */
+public final class CartesSynthetiques {
+
+    /**
+     * Constructeur privé : classe utilitaire.
+     */
+    private CartesSynthetiques() {
+    }
+
+    /**
+     * Construit les lignes d'une carte carrée.
+     *
+     * @param taille La largeur et la hauteur de la carte, au moins 8.
+     * @return Les lignes de la carte.
+     */
+    public static List<String> lignes(int taille) {
+        char[][] grille = new char[taille][taille];
+        for (int y = 0; y < taille; y++) {
+            for (int x = 0; x < taille; x++) {
+                boolean bord = x == 0 || y == 0 || x == taille - 1 || y == taille - 1;
+                grille[y][x] = bord ? '#' : ' ';
+            }
+        }
+        for (int y = 2; y < taille - 6; y += 4) {
+            for (int x = 2; x + 2 < taille - 1; x += 4) {
+                grille[y][x] = '$';
+                grille[y][x + 2] = '.';
+                grille[y + 2][x] = '#';
+            }
+        }
+        int ligneRobot = taille - 4;
+        grille[ligneRobot][1] = '@';
+        grille[ligneRobot][2] = '$';
+        grille[ligneRobot][4] = '.';
+
+        List<String> lignes = new ArrayList<>(taille);
+        for (char[] ligne : grille) {
+            lignes.add(new String(ligne));
+        }
+        return lignes;
+    }
+}
@@ -0,0 +1,83 @@
+package modele.solveur;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import modele.Carte;
+import modele.Lecture;
+
+/**
+ * La classe ControleSolveurParallele vérifie en mode console que le solveur parallèle
+ * ne conclut jamais à tort qu'un niveau est insoluble. Chaque carte est d'abord résolue
+ * par le {@link Solveur} séquentiel, puis par le {@link SolveurParallele} de nombreuses fois
+ * de suite : les courses entre threads dépendent de l'ordonnancement, et une erreur de comptage
+ * du travail restant n'apparaît qu'occasionnellement.
+ * <p>
+ * Le programme se termine avec le code 1 si une seule résolution parallèle d'une carte soluble
+ * donne {@link StatutRecherche#INSOLUBLE}. C'est un contrôle de non-régression : il fait partie
+ * du module des benchmarks et n'est pas livré avec le jeu.
+ * <p>
+ * Utilisation : {@code java -cp benchmarks/target/benchmarks.jar modele.solveur.ControleSolveurParallele
+ * [-threads N] [-essais K] carte...}
+ * <br>Sans carte, les niveaux de {@code ./src/map} sont utilisés : le contrôle doit alors être lancé
+ * depuis la racine du projet.
+ */
+public class ControleSolveurParallele {
+
+    /**
+     * Point d'entrée du contrôle.
+     *
+     * @param args Options {@code -threads} (32 par défaut, pour multiplier les échanges même
+     *             sur peu de processeurs), {@code -essais} (résolutions par carte, 300 par défaut),
+     *             puis les chemins des cartes.
+     */
+    public static void main(String[] args) {
+        int nbThreads = 32;
+        int nbEssais = 300;
+        List<String> cartes = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-threads" -> nbThreads = Integer.parseInt(args[++i]);
+                case "-essais" -> nbEssais = Integer.parseInt(args[++i]);
+                default -> cartes.add(args[i]);
+            }
+        }
+        if (cartes.isEmpty()) {
+            cartes.add("./src/map/map1.txt");
+            cartes.add("./src/map/map2.txt");
+            cartes.add("./src/map/map3.txt");
+        }
+
+        boolean echec = false;
+        for (String chemin : cartes) {
+            Lecture lecture = new Lecture(chemin);
+            if (lecture.getNbLignes() == 0) {
+                System.out.println("Erreur: Impossible de charger la carte " + chemin);
+                continue;
+            }
+            Solveur reference = new Solveur();
+            reference.setLimiteTemps(60_000);
+            reference.resoudre(new Carte(lecture.getLignes()));
+            if (reference.getStatistiques().getStatut() != StatutRecherche.RESOLU) {
+                System.out.println(chemin + " : ignorée, le solveur séquentiel donne "
+                        + reference.getStatistiques().getStatut());
+                continue;
+            }
+
+            Map<StatutRecherche, Integer> statuts = new EnumMap<>(StatutRecherche.class);
+            for (int essai = 0; essai < nbEssais; essai++) {
+                SolveurParallele solveur = new SolveurParallele(nbThreads);
+                solveur.setLimiteTemps(60_000);
+                solveur.resoudre(new Carte(lecture.getLignes()));
+                statuts.merge(solveur.getStatistiques().getStatut(), 1, Integer::sum);
+            }
+            boolean faux = statuts.containsKey(StatutRecherche.INSOLUBLE);
+            echec |= faux;
+            System.out.println(chemin + " : " + statuts + (faux ? " ÉCHEC" : " OK"));
+        }
+        if (echec) {
+            System.exit(1);
+        }
+    }
+}
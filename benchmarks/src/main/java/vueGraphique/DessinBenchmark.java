@@ -0,0 +1,105 @@
+package vueGraphique;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import modele.Carte;
+import modele.CartesSynthetiques;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks du dessin complet d'une carte par {@link VueSokoban}, dans une image hors écran.
+ * <p>
+ * Les images sont lues par {@link AtlasDeTuiles} dans le classpath ({@code /images/}), où le module
+ * du jeu les place : le benchmark peut être lancé depuis n'importe quel dossier. Il s'exécute
+ * en mode headless.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class DessinBenchmark {
+
+    /**
+     * Largeur et hauteur de la carte.
+     */
+    @Param({"16", "64", "200"})
+    public int taille;
+
+    /**
+     * Vue graphique dessinant la carte.
+     */
+    private VueSokoban vue;
+
+    /**
+     * Carte affichée par la vue.
+     */
+    private Carte carte;
+
+    /**
+     * Image hors écran recevant le dessin.
+     */
+    private BufferedImage image;
+
+    /**
+     * Contexte graphique de l'image.
+     */
+    private Graphics2D graphique;
+
+    /**
+     * Crée la vue et l'image hors écran à la taille de la carte.
+     */
+    @Setup(Level.Trial)
+    public void preparer() {
+        carte = new Carte(CartesSynthetiques.lignes(taille));
+        vue = new VueSokoban(carte, null);
+        image = new BufferedImage(taille * 32, taille * 32, BufferedImage.TYPE_INT_RGB);
+        graphique = image.createGraphics();
+    }
+
+    /**
+     * Libère le contexte graphique.
+     */
+    @TearDown(Level.Trial)
+    public void liberer() {
+        graphique.dispose();
+    }
+
+    /**
+     * Dessin de toutes les cases de la carte.
+     *
+     * @return L'image dessinée.
+     */
+    @Benchmark
+    public BufferedImage dessin() {
+        vue.dessinerCarte(graphique);
+        return image;
+    }
+
+    /**
+     * Premier dessin d'un niveau : la carte est remise dans la vue, ce qui oblige
+     * à redessiner tout le terrain statique avant les caisses et le robot.
+     *
+     * @return L'image dessinée.
+     */
+    @Benchmark
+    public BufferedImage dessinInitial() {
+        vue.setCarte(carte);
+        vue.dessinerCarte(graphique);
+        return image;
+    }
+}
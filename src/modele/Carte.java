@@ -1,19 +1,118 @@
 package modele;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 
 /**
  * La classe Carte représente une carte du jeu.
- * Elle gère la position des éléments (mur, vide, robot, caisse, etc.) 
+ * Elle gère la position des éléments (mur, vide, robot, caisse, etc.)
  * ainsi que les déplacements dans le jeu.
+ * <p>
+ * Le terrain statique (mur, sol, destination, vide) est stocké dans un tableau
+ * d'octets indexé par case ({@code y * largeur + x}), et les caisses dans un
+ * ensemble de bits séparé. Une carte coûte ainsi un peu plus d'un octet par case
+ * et un déplacement n'alloue aucun objet.
+ * <p>
+ * Le terrain, les destinations et les cases mortes appartiennent au {@link Niveau},
+ * partagé entre toutes les cartes d'un même niveau : une carte ne possède que l'état
+ * de la partie (caisses, robot, compteurs, historique), et la créer ou la copier
+ * revient à recopier l'ensemble des caisses.
  */
 public class Carte {
 
     /**
-     * Grille des éléments de la carte (chaque case contient un élément).
+     * Code de terrain d'une case vide, notée par un espace : elle se traverse comme le sol.
+     * Les positions hors de la grille sont aussi rapportées comme vides.
      */
-    private Element[][] elements;
+    public static final byte TERRAIN_VIDE = 0;
+
+    /**
+     * Code de terrain d'une case de sol.
+     */
+    public static final byte TERRAIN_SOL = 1;
+
+    /**
+     * Code de terrain d'une case destination.
+     */
+    public static final byte TERRAIN_DESTINATION = 2;
+
+    /**
+     * Code de terrain d'une case de mur.
+     */
+    public static final byte TERRAIN_MUR = 3;
+
+    /**
+     * Sel des clés de Zobrist associées aux caisses.
+     */
+    private static final long SEL_CAISSE = 0x5DEECE66DL;
+
+    /**
+     * Sel des clés de Zobrist associées à la position normalisée du robot.
+     */
+    private static final long SEL_ROBOT = 0x2545F4914F6CDD1DL;
+
+    /**
+     * Bit d'une entrée du journal indiquant que le mouvement a poussé une caisse.
+     * Les deux bits de poids faible contiennent la direction du mouvement.
+     */
+    private static final int JOURNAL_POUSSEE = 1 << 2;
+
+    /**
+     * Position, dans une entrée du journal, des deux bits de la direction du robot avant le mouvement.
+     */
+    private static final int JOURNAL_DECALAGE_DIRECTION = 3;
+
+    /**
+     * Bit d'une entrée du journal indiquant que la partie était déjà dans une impasse avant le mouvement.
+     */
+    private static final int JOURNAL_IMPASSE = 1 << 5;
+
+    /**
+     * Code retourné par {@link #effectuerMouvement(Direction)} quand le mouvement est impossible.
+     */
+    public static final int MOUVEMENT_BLOQUE = 0;
+
+    /**
+     * Code retourné par {@link #effectuerMouvement(Direction)} quand le robot avance sans pousser.
+     */
+    public static final int MOUVEMENT_DEPLACEMENT = 1;
+
+    /**
+     * Code retourné par {@link #effectuerMouvement(Direction)} quand le robot pousse une caisse.
+     */
+    public static final int MOUVEMENT_POUSSEE = 2;
+
+    /**
+     * Ensemble des directions, partagé pour éviter la copie faite par {@code Direction.values()}.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * Niveau dont la carte est une partie, partagé et jamais modifié.
+     */
+    private final Niveau niveau;
+
+    /**
+     * Largeur de la carte (nombre de colonnes).
+     */
+    private final int largeur;
+
+    /**
+     * Hauteur de la carte (nombre de lignes).
+     */
+    private final int hauteur;
+
+    /**
+     * Terrain statique de chaque case, indexé par {@code y * largeur + x},
+     * partagé avec le niveau.
+     */
+    private final byte[] terrain;
+
+    /**
+     * Ensemble des cases occupées par une caisse.
+     */
+    private final BitSet caisses;
 
     /**
      * Référence au robot présent sur la carte.
@@ -21,9 +120,9 @@ public class Carte {
     private Robot robot;
 
     /**
-     * Liste des positions correspondant aux destinations.
+     * Indice de la case occupée par le robot, ou -1 s'il n'y a pas de robot.
      */
-    private List<Position> destinations;
+    private int indiceRobot;
 
     /**
      * Nombre de mouvements effectués depuis le début de la partie.
@@ -31,54 +130,332 @@ public class Carte {
     private int nbMouvements;
 
     /**
-     * Constructeur : initialise une carte à partir d'une liste de chaînes 
-     * représentant les lignes de la carte.
+     * Nombre de caisses actuellement placées sur une destination,
+     * tenu à jour à chaque poussée.
+     */
+    private int nbCaissesPlacees;
+
+    /**
+     * Nombre de caisses sur la carte.
+     */
+    private final int nbCaisses;
+
+    /**
+     * Cases mortes : cases hors mur depuis lesquelles aucune caisse ne peut atteindre
+     * une destination. Calculées une fois pour toutes par le niveau.
+     */
+    private final BitSet casesMortes;
+
+    /**
+     * Indique si une poussée a mis une caisse dans une position sans issue.
+     */
+    private boolean impasse;
+
+    /**
+     * Détection des caisses bloquées, partagée avec le solveur.
+     */
+    private final DetectionDesImpasses impasses;
+
+    /**
+     * Partie du hachage de Zobrist due aux caisses : ou exclusif des clés de leurs cases.
+     */
+    private long hashCaisses;
+
+    /**
+     * Plus petite case accessible au robot sans pousser de caisse, ou -1 si elle
+     * doit être recalculée (après une poussée).
+     */
+    private int robotNormalise;
+
+    /**
+     * File réutilisée par le calcul de la zone accessible au robot, allouée au premier besoin.
+     */
+    private int[] fileAccessibles;
+
+    /**
+     * Marques de visite réutilisées par le calcul de la zone accessible au robot.
+     */
+    private int[] marquesAccessibles;
+
+    /**
+     * Génération courante des marques de visite.
+     */
+    private int generationAccessibles;
+
+    /**
+     * Pour chaque case atteinte par la recherche de chemin, case suivante vers la case visée.
+     * Réutilisé d'une recherche à l'autre, alloué au premier besoin.
+     */
+    private int[] suivantesChemin;
+
+    /**
+     * Journal des mouvements effectués, un entier par mouvement
+     * (direction, poussée, direction précédente du robot, impasse précédente).
+     */
+    private int[] journal;
+
+    /**
+     * Nombre de mouvements du journal actuellement joués.
+     */
+    private int positionJournal;
+
+    /**
+     * Nombre de mouvements du journal, y compris ceux annulés qui peuvent être refaits.
+     */
+    private int tailleJournal;
+
+    /**
+     * Indices des cases modifiées par le dernier mouvement (au plus trois :
+     * l'ancienne et la nouvelle case du robot, et la case d'arrivée d'une caisse poussée).
+     */
+    private final int[] casesModifiees = new int[3];
+
+    /**
+     * Nombre de cases modifiées par le dernier mouvement, 0 s'il a été bloqué.
+     */
+    private int nbCasesModifiees;
+
+    /**
+     * Constructeur : initialise une carte à partir d'une liste de chaînes
+     * représentant les lignes de la carte. En plus des symboles de base, les symboles
+     * {@code *} (caisse sur une destination) et {@code +} (robot sur une destination)
+     * des paquets de niveaux sont reconnus.
      * @param lignes Liste de chaînes, où chaque caractère correspond à un élément.
      */
     public Carte(List<String> lignes) {
-        destinations = new ArrayList<>();
-        nbMouvements = 0;
-
-        int hauteur = lignes.size();
-        int largeur = lignes.get(0).length();
+        this(new Niveau(lignes));
+    }
 
-        elements = new Element[hauteur][largeur];
+    /**
+     * Constructeur : initialise une partie neuve d'un niveau déjà analysé.
+     * Seul l'ensemble des caisses de départ est recopié.
+     * @param niveau Le niveau à jouer.
+     */
+    public Carte(Niveau niveau) {
+        this.niveau = niveau;
+        largeur = niveau.getLargeur();
+        hauteur = niveau.getHauteur();
+        terrain = niveau.getCasesTerrain();
+        casesMortes = niveau.getCasesMortes();
+        nbCaisses = niveau.getNbCaisses();
+        caisses = (BitSet) niveau.getCaissesInitiales().clone();
+        nbCaissesPlacees = niveau.getNbCaissesPlaceesInitiales();
+        indiceRobot = niveau.getIndiceRobotInitial();
+        if (indiceRobot >= 0) {
+            robot = new Robot();
+            robot.setX(indiceRobot % largeur);
+            robot.setY(indiceRobot / largeur);
+        }
+        hashCaisses = niveau.getHashCaissesInitial();
+        robotNormalise = -1;
+        impasses = new ImpassesDeLaCarte();
+        journal = new int[64];
+    }
 
-        for (int i = 0; i < hauteur; i++) {
-            String ligne = lignes.get(i);
-            for (int j = 0; j < largeur; j++) {
-                char c = ligne.charAt(j);
-                switch (c) {
-                    case '#' -> elements[i][j] = new Mur();
-                    case ' ' -> elements[i][j] = new Vide();
-                    case '.' -> {
-                        elements[i][j] = new Destination();
-                        destinations.add(new Position(j, i));
-                    }
-                    case '$' -> elements[i][j] = new Caisse();
-                    case '@' -> {
-                        robot = new Robot();
-                        elements[i][j] = robot;
-                    }
-                    default -> elements[i][j] = new Sol();
-                }
-                elements[i][j].setX(j);
-                elements[i][j].setY(i);
-            }
+    /**
+     * Constructeur de copie : crée une carte dans le même état qu'une autre.
+     * Le niveau est partagé avec le modèle ; seuls l'état des caisses, le robot,
+     * les compteurs et l'historique sont recopiés.
+     * @param modele La carte à copier.
+     */
+    private Carte(Carte modele) {
+        niveau = modele.niveau;
+        largeur = modele.largeur;
+        hauteur = modele.hauteur;
+        terrain = modele.terrain;
+        casesMortes = modele.casesMortes;
+        nbCaisses = modele.nbCaisses;
+        caisses = (BitSet) modele.caisses.clone();
+        if (modele.robot != null) {
+            robot = new Robot();
+            robot.setX(modele.robot.getX());
+            robot.setY(modele.robot.getY());
+            robot.setDirection(modele.robot.getDirection());
         }
+        indiceRobot = modele.indiceRobot;
+        nbMouvements = modele.nbMouvements;
+        nbCaissesPlacees = modele.nbCaissesPlacees;
+        impasse = modele.impasse;
+        hashCaisses = modele.hashCaisses;
+        robotNormalise = modele.robotNormalise;
+        impasses = new ImpassesDeLaCarte();
+        journal = modele.journal.clone();
+        positionJournal = modele.positionJournal;
+        tailleJournal = modele.tailleJournal;
+    }
+
+    /**
+     * Retourne une copie indépendante de la carte, dans son état actuel.
+     * La copie ne coûte que la recopie de l'état des caisses et de l'historique :
+     * elle permet de garder une carte modèle et d'en tirer une partie neuve sans relire le niveau.
+     * @return La copie de la carte.
+     */
+    public Carte copier() {
+        return new Carte(this);
     }
 
     /**
      * Retourne l'élément présent à une position donnée.
+     * Il s'agit d'une vue de compatibilité : hormis le robot, l'élément retourné
+     * est construit à la demande à partir du terrain et des caisses, et ses
+     * modifications ne sont pas répercutées sur la carte.
      * @param x Coordonnée X.
      * @param y Coordonnée Y.
      * @return L'élément à la position donnée ou null si la position est hors de la grille.
      */
     public Element getElement(int x, int y) {
-        if (x >= 0 && x < getLargeur() && y >= 0 && y < getHauteur()) {
-            return elements[y][x];
+        if (!estDansLaGrille(x, y)) {
+            return null;
+        }
+        int indice = y * largeur + x;
+        if (indice == indiceRobot) {
+            return robot;
+        }
+        Element element;
+        if (caisses.get(indice)) {
+            Caisse caisse = new Caisse();
+            caisse.setEstSurDestination(terrain[indice] == TERRAIN_DESTINATION);
+            element = caisse;
+        } else {
+            element = switch (terrain[indice]) {
+                case TERRAIN_MUR -> new Mur();
+                case TERRAIN_DESTINATION -> new Destination();
+                case TERRAIN_VIDE -> new Vide();
+                default -> new Sol();
+            };
+        }
+        element.setX(x);
+        element.setY(y);
+        return element;
+    }
+
+    /**
+     * Retourne le symbole de la case à une position donnée, sans construire d'élément.
+     * @param x Coordonnée X.
+     * @param y Coordonnée Y.
+     * @return Le symbole de la case, ou un espace si la position est hors de la grille.
+     */
+    public char getSymbole(int x, int y) {
+        if (!estDansLaGrille(x, y)) {
+            return ' ';
+        }
+        int indice = y * largeur + x;
+        if (indice == indiceRobot) {
+            return robot.getSymbole();
+        }
+        byte t = terrain[indice];
+        if (caisses.get(indice)) {
+            return t == TERRAIN_DESTINATION ? '*' : '$';
+        }
+        return switch (t) {
+            case TERRAIN_MUR -> '#';
+            case TERRAIN_DESTINATION -> '.';
+            default -> ' ';
+        };
+    }
+
+    /**
+     * Retourne le code de terrain statique d'une case.
+     * @param x Coordonnée X.
+     * @param y Coordonnée Y.
+     * @return Le code de terrain, ou {@link #TERRAIN_VIDE} si la position est hors de la grille.
+     */
+    public byte getTerrain(int x, int y) {
+        if (!estDansLaGrille(x, y)) {
+            return TERRAIN_VIDE;
+        }
+        return terrain[y * largeur + x];
+    }
+
+    /**
+     * Indique si une case contient une caisse.
+     * @param x Coordonnée X.
+     * @param y Coordonnée Y.
+     * @return true si une caisse occupe la case, false sinon.
+     */
+    public boolean estCaisse(int x, int y) {
+        return estDansLaGrille(x, y) && caisses.get(y * largeur + x);
+    }
+
+    /**
+     * Retourne la première case contenant une caisse à partir d'une case donnée,
+     * dans l'ordre des indices {@code y * largeur + x}.
+     * Permet de parcourir les caisses sans tester chaque case de la grille.
+     *
+     * @param indice L'indice de la case de départ, incluse.
+     * @return L'indice de la case de la caisse suivante, ou -1 s'il n'y en a plus.
+     */
+    public int getCaisseSuivante(int indice) {
+        return caisses.nextSetBit(indice);
+    }
+
+    /**
+     * Indique si une case est une destination, qu'elle soit occupée ou non.
+     * La réponse est lue directement dans le tableau du terrain, en temps constant,
+     * sans parcourir la liste des destinations.
+     * @param x Coordonnée X.
+     * @param y Coordonnée Y.
+     * @return true si la case est une destination, false sinon ou hors de la grille.
+     */
+    public boolean estDestination(int x, int y) {
+        return estDansLaGrille(x, y) && terrain[y * largeur + x] == TERRAIN_DESTINATION;
+    }
+
+    /**
+     * Indique si une case est morte : une caisse qui s'y trouve ne pourra jamais
+     * atteindre une destination.
+     * @param x Coordonnée X.
+     * @param y Coordonnée Y.
+     * @return true si la case est morte, false sinon.
+     */
+    public boolean estCaseMorte(int x, int y) {
+        return estDansLaGrille(x, y) && casesMortes.get(y * largeur + x);
+    }
+
+    /**
+     * Retourne le nombre de cases mortes de la carte.
+     * @return Nombre de cases mortes.
+     */
+    public int getNbCasesMortes() {
+        return niveau.getNbCasesMortes();
+    }
+
+    /**
+     * Indique si une poussée a bloqué une caisse de façon définitive
+     * (case morte, carré 2x2 ou caisse gelée hors destination) : le niveau
+     * ne peut alors plus être terminé. Le test se fait en temps constant.
+     * @return true si la partie est dans une impasse, false sinon.
+     */
+    public boolean estEnImpasse() {
+        return impasse;
+    }
+
+    /**
+     * Indique si la caisse d'une case est bloquée de façon définitive :
+     * elle est sur une case morte, elle forme un carré 2x2 avec des murs ou
+     * d'autres caisses dont l'une n'est pas sur une destination, ou elle est
+     * gelée (immobile sur les deux axes) avec une caisse gelée hors destination.
+     * Ces impasses ne sont détectées que si la carte a autant de caisses que de
+     * destinations, car une caisse en surnombre peut rester bloquée sans conséquence.
+     * @param x Coordonnée X de la caisse.
+     * @param y Coordonnée Y de la caisse.
+     * @return true si la caisse est bloquée, false sinon ou s'il n'y a pas de caisse.
+     */
+    public boolean estCaisseBloquee(int x, int y) {
+        if (!estCaisse(x, y) || nbCaisses != niveau.getDestinations().size()) {
+            return false;
         }
-        return null;
+        return impasses.estBloquee((y + 1) * (largeur + 2) + x + 1);
+    }
+
+    /**
+     * Indique si une position se trouve à l'intérieur de la grille.
+     * @param x Coordonnée X.
+     * @param y Coordonnée Y.
+     * @return true si la position est dans la grille, false sinon.
+     */
+    private boolean estDansLaGrille(int x, int y) {
+        return x >= 0 && x < largeur && y >= 0 && y < hauteur;
     }
 
     /**
@@ -86,7 +463,7 @@ public class Carte {
      * @return Hauteur de la carte.
      */
     public int getHauteur() {
-        return elements.length;
+        return hauteur;
     }
 
     /**
@@ -94,7 +471,7 @@ public class Carte {
      * @return Largeur de la carte.
      */
     public int getLargeur() {
-        return elements[0].length;
+        return largeur;
     }
 
     /**
@@ -106,18 +483,16 @@ public class Carte {
     }
 
     /**
-     * Remplace un élément à une position donnée par du sol ou une destination,
-     * en fonction de la liste des destinations.
-     * @param x Coordonnée X de l'élément.
-     * @param y Coordonnée Y de l'élément.
+     * Place le robot sur une nouvelle case et met à jour sa direction.
+     * @param x Coordonnée X de la nouvelle case.
+     * @param y Coordonnée Y de la nouvelle case.
+     * @param direction La direction du déplacement.
      */
-    private void restaurerSolOuDestination(int x, int y) {
-        Position pos = new Position(x, y);
-        if (destinations.contains(pos)) {
-            elements[y][x] = new Destination();
-        } else {
-            elements[y][x] = new Sol();
-        }
+    private void placerRobot(int x, int y, Direction direction) {
+        indiceRobot = y * largeur + x;
+        robot.setX(x);
+        robot.setY(y);
+        robot.setDirection(direction);
     }
 
     /**
@@ -126,71 +501,377 @@ public class Carte {
      * @return true si le déplacement a réussi, false sinon.
      */
     public boolean deplacerRobot(Direction direction) {
-        int dx = 0, dy = 0;
-        switch (direction) {
-            case HAUT -> dy = -1;
-            case BAS -> dy = 1;
-            case GAUCHE -> dx = -1;
-            case DROITE -> dx = 1;
+        return effectuerMouvement(direction) != MOUVEMENT_BLOQUE;
+    }
+
+    /**
+     * Déplace le robot dans une direction donnée et retourne la nature du mouvement.
+     * Le test de destination se fait directement sur le terrain de la case cible,
+     * et aucun objet n'est alloué pendant le mouvement. Un mouvement effectué est
+     * ajouté au journal et efface les mouvements annulés qui pouvaient être refaits.
+     * @param direction La direction dans laquelle le robot doit être déplacé.
+     * @return {@link #MOUVEMENT_DEPLACEMENT} si le robot a avancé seul,
+     *         {@link #MOUVEMENT_POUSSEE} s'il a poussé une caisse,
+     *         {@link #MOUVEMENT_BLOQUE} si le mouvement est impossible ou si la carte n'a pas de robot.
+     */
+    public int effectuerMouvement(Direction direction) {
+        if (robot == null) {
+            return MOUVEMENT_BLOQUE;
+        }
+        int entree = (robot.getDirection().ordinal() << JOURNAL_DECALAGE_DIRECTION)
+                | (impasse ? JOURNAL_IMPASSE : 0) | direction.ordinal();
+        int code = deplacer(direction);
+        if (code != MOUVEMENT_BLOQUE) {
+            if (positionJournal == journal.length) {
+                journal = Arrays.copyOf(journal, journal.length * 2);
+            }
+            journal[positionJournal++] = code == MOUVEMENT_POUSSEE ? entree | JOURNAL_POUSSEE : entree;
+            tailleJournal = positionJournal;
         }
+        return code;
+    }
+
+    /**
+     * Déplace le robot jusqu'à une case par le plus court chemin qui ne pousse aucune caisse.
+     * Le chemin est cherché par un parcours en largeur partant de la case visée, sur les indices
+     * des cases, avec une file et des marques réutilisées : la recherche n'alloue rien après
+     * le premier appel. Chaque pas est joué et journalisé comme un mouvement, mais seules
+     * la case de départ et la case d'arrivée sont ensuite signalées comme modifiées.
+     * @param x Coordonnée X de la case visée.
+     * @param y Coordonnée Y de la case visée.
+     * @return Le nombre de pas joués, 0 si la case est celle du robot ou n'est pas accessible.
+     */
+    public int marcherVers(int x, int y) {
+        nbCasesModifiees = 0;
+        if (indiceRobot < 0 || !estDansLaGrille(x, y)) {
+            return 0;
+        }
+        int cible = y * largeur + x;
+        if (cible == indiceRobot || terrain[cible] == TERRAIN_MUR || caisses.get(cible)) {
+            return 0;
+        }
+        if (fileAccessibles == null) {
+            fileAccessibles = new int[terrain.length];
+            marquesAccessibles = new int[terrain.length];
+        }
+        if (suivantesChemin == null) {
+            suivantesChemin = new int[terrain.length];
+        }
+
+        // Le parcours part de la cible : chaque case atteinte connaît directement le pas suivant.
+        int g = ++generationAccessibles;
+        int debut = 0;
+        int fin = 0;
+        marquesAccessibles[cible] = g;
+        fileAccessibles[fin++] = cible;
+        boolean trouve = false;
+        while (debut < fin && !trouve) {
+            int courante = fileAccessibles[debut++];
+            int cx = courante % largeur;
+            for (int k = 0; k < 4; k++) {
+                int voisine;
+                if (k == 0) {
+                    voisine = courante >= largeur ? courante - largeur : -1;
+                } else if (k == 1) {
+                    voisine = courante + largeur < terrain.length ? courante + largeur : -1;
+                } else if (k == 2) {
+                    voisine = cx > 0 ? courante - 1 : -1;
+                } else {
+                    voisine = cx + 1 < largeur ? courante + 1 : -1;
+                }
+                if (voisine < 0 || marquesAccessibles[voisine] == g || terrain[voisine] == TERRAIN_MUR
+                        || caisses.get(voisine)) {
+                    continue;
+                }
+                marquesAccessibles[voisine] = g;
+                suivantesChemin[voisine] = courante;
+                if (voisine == indiceRobot) {
+                    trouve = true;
+                    break;
+                }
+                fileAccessibles[fin++] = voisine;
+            }
+        }
+        if (!trouve) {
+            return 0;
+        }
+
+        int depart = indiceRobot;
+        int nbPas = 0;
+        while (indiceRobot != cible) {
+            int ecart = suivantesChemin[indiceRobot] - indiceRobot;
+            Direction direction = ecart == largeur ? Direction.BAS
+                    : ecart == -largeur ? Direction.HAUT
+                    : ecart == 1 ? Direction.DROITE : Direction.GAUCHE;
+            effectuerMouvement(direction);
+            nbPas++;
+        }
+        casesModifiees[0] = depart;
+        casesModifiees[1] = cible;
+        nbCasesModifiees = 2;
+        return nbPas;
+    }
+
+    /**
+     * Annule le dernier mouvement, sans relire le fichier ni reconstruire la carte.
+     * @return true si un mouvement a été annulé, false s'il n'y en avait aucun.
+     */
+    public boolean annuler() {
+        if (positionJournal == 0) {
+            nbCasesModifiees = 0;
+            return false;
+        }
+        int entree = journal[--positionJournal];
+        Direction direction = DIRECTIONS[entree & 3];
+        int pas = direction.getDy() * largeur + direction.getDx();
+        int ancien = indiceRobot - pas;
+        casesModifiees[0] = indiceRobot;
+        casesModifiees[1] = ancien;
+        nbCasesModifiees = 2;
+        if ((entree & JOURNAL_POUSSEE) != 0) {
+            casesModifiees[nbCasesModifiees++] = indiceRobot + pas;
+            deplacerCaisse(indiceRobot + pas, indiceRobot);
+        }
+        placerRobot(ancien % largeur, ancien / largeur,
+                DIRECTIONS[(entree >> JOURNAL_DECALAGE_DIRECTION) & 3]);
+        impasse = (entree & JOURNAL_IMPASSE) != 0;
+        nbMouvements--;
+        return true;
+    }
+
+    /**
+     * Refait le dernier mouvement annulé.
+     * @return true si un mouvement a été refait, false s'il n'y en avait aucun.
+     */
+    public boolean refaire() {
+        if (positionJournal == tailleJournal) {
+            nbCasesModifiees = 0;
+            return false;
+        }
+        deplacer(DIRECTIONS[journal[positionJournal] & 3]);
+        positionJournal++;
+        return true;
+    }
+
+    /**
+     * Indique si un mouvement peut être annulé.
+     * @return true si le journal contient un mouvement à annuler, false sinon.
+     */
+    public boolean peutAnnuler() {
+        return positionJournal > 0;
+    }
+
+    /**
+     * Indique si un mouvement annulé peut être refait.
+     * @return true si le journal contient un mouvement à refaire, false sinon.
+     */
+    public boolean peutRefaire() {
+        return positionJournal < tailleJournal;
+    }
+
+    /**
+     * Retourne le nombre de cases modifiées par le dernier mouvement,
+     * qu'il ait été joué, annulé ou refait.
+     * @return Le nombre de cases modifiées, entre 0 (mouvement bloqué) et 3.
+     */
+    public int getNbCasesModifiees() {
+        return nbCasesModifiees;
+    }
+
+    /**
+     * Retourne l'abscisse d'une case modifiée par le dernier mouvement.
+     * @param rang Le rang de la case, entre 0 et {@link #getNbCasesModifiees()} exclu.
+     * @return La coordonnée X de la case.
+     */
+    public int getXCaseModifiee(int rang) {
+        return casesModifiees[rang] % largeur;
+    }
+
+    /**
+     * Retourne l'ordonnée d'une case modifiée par le dernier mouvement.
+     * @param rang Le rang de la case, entre 0 et {@link #getNbCasesModifiees()} exclu.
+     * @return La coordonnée Y de la case.
+     */
+    public int getYCaseModifiee(int rang) {
+        return casesModifiees[rang] / largeur;
+    }
+
+    /**
+     * Effectue un mouvement du robot sans le journaliser.
+     * @param direction La direction dans laquelle le robot doit être déplacé.
+     * @return Le code du mouvement, comme pour {@link #effectuerMouvement(Direction)}.
+     */
+    private int deplacer(Direction direction) {
+        nbCasesModifiees = 0;
+        int dx = direction.getDx();
+        int dy = direction.getDy();
 
         int newX = robot.getX() + dx;
         int newY = robot.getY() + dy;
+        if (!estDansLaGrille(newX, newY)) {
+            return MOUVEMENT_BLOQUE;
+        }
+
+        int pas = dy * largeur + dx;
+        int cible = indiceRobot + pas;
+        if (terrain[cible] == TERRAIN_MUR) {
+            return MOUVEMENT_BLOQUE;
+        }
 
-        Element nextElement = getElement(newX, newY);
+        if (!caisses.get(cible)) {
+            casesModifiees[0] = indiceRobot;
+            casesModifiees[1] = cible;
+            nbCasesModifiees = 2;
+            placerRobot(newX, newY, direction);
+            nbMouvements++;
+            return MOUVEMENT_DEPLACEMENT;
+        }
+
+        if (!estDansLaGrille(newX + dx, newY + dy)) {
+            return MOUVEMENT_BLOQUE;
+        }
+        int arrivee = cible + pas;
+        if (terrain[arrivee] == TERRAIN_MUR || caisses.get(arrivee)) {
+            return MOUVEMENT_BLOQUE;
+        }
 
-        if (nextElement != null && nextElement.peutTraverser()) {
-            restaurerSolOuDestination(robot.getX(), robot.getY());
+        casesModifiees[0] = indiceRobot;
+        casesModifiees[1] = cible;
+        casesModifiees[2] = arrivee;
+        nbCasesModifiees = 3;
+        deplacerCaisse(cible, arrivee);
+        if (!impasse) {
+            impasse = estCaisseBloquee(newX + dx, newY + dy);
+        }
 
-            robot.setX(newX);
-            robot.setY(newY);
-            robot.setDirection(direction);
-            elements[newY][newX] = robot;
+        placerRobot(newX, newY, direction);
+        nbMouvements++;
+        return MOUVEMENT_POUSSEE;
+    }
 
-            nbMouvements++;
-            return true;
-        } else if (nextElement instanceof Caisse caisse) {
-            int nextCaisseX = newX + dx;
-            int nextCaisseY = newY + dy;
-            Element nextNextElement = getElement(nextCaisseX, nextCaisseY);
-
-            if (nextNextElement != null && nextNextElement.peutTraverser()) {
-                boolean caisseEstSurDestination = destinations.stream().anyMatch(
-                        dest -> dest.x == nextCaisseX && dest.y == nextCaisseY
-                );
-
-                caisse.setEstSurDestination(caisseEstSurDestination);
-                elements[nextCaisseY][nextCaisseX] = caisse;
-                caisse.setX(nextCaisseX);
-                caisse.setY(nextCaisseY);
-
-                restaurerSolOuDestination(robot.getX(), robot.getY());
-
-                robot.setX(newX);
-                robot.setY(newY);
-                robot.setDirection(direction);
-                elements[newY][newX] = robot;
-
-                nbMouvements++;
-                return true;
+    /**
+     * Déplace une caisse d'une case à une autre en tenant à jour le compteur
+     * de caisses placées et le hachage de Zobrist.
+     * @param depart La case quittée par la caisse.
+     * @param arrivee La case d'arrivée de la caisse.
+     */
+    private void deplacerCaisse(int depart, int arrivee) {
+        caisses.clear(depart);
+        caisses.set(arrivee);
+        if (terrain[depart] == TERRAIN_DESTINATION) {
+            nbCaissesPlacees--;
+        }
+        if (terrain[arrivee] == TERRAIN_DESTINATION) {
+            nbCaissesPlacees++;
+        }
+        hashCaisses ^= cleZobrist(depart, SEL_CAISSE) ^ cleZobrist(arrivee, SEL_CAISSE);
+        robotNormalise = -1;
+    }
+
+    /**
+     * Retourne le hachage de Zobrist 64 bits de l'état de la partie : positions des caisses
+     * et zone accessible au robot (représentée par sa plus petite case). Deux états où
+     * le robot peut rejoindre l'autre position sans pousser ont le même hachage.
+     * La partie due aux caisses est mise à jour à chaque poussée ; la zone du robot ne change
+     * pas lors d'une simple marche et n'est recalculée qu'au premier appel après une poussée.
+     * @return Le hachage de l'état.
+     */
+    public long getHashZobrist() {
+        if (robotNormalise < 0 && indiceRobot >= 0) {
+            robotNormalise = calculerRobotNormalise();
+        }
+        return robotNormalise < 0 ? hashCaisses : hashCaisses ^ cleZobrist(robotNormalise, SEL_ROBOT);
+    }
+
+    /**
+     * Calcule la partie du hachage de Zobrist due à un ensemble de caisses.
+     * @param caisses Les cases occupées par une caisse.
+     * @return Le ou exclusif des clés des cases.
+     */
+    static long hacherCaisses(BitSet caisses) {
+        long hash = 0;
+        for (int i = caisses.nextSetBit(0); i >= 0; i = caisses.nextSetBit(i + 1)) {
+            hash ^= cleZobrist(i, SEL_CAISSE);
+        }
+        return hash;
+    }
+
+    /**
+     * Calcule la clé de Zobrist d'une case. Les clés sont dérivées de l'indice de la case
+     * par la fonction de mélange de SplitMix64, sans table : deux cartes de même largeur
+     * partagent donc les mêmes clés.
+     * @param indice L'indice de la case.
+     * @param sel Le sel distinguant les clés des caisses de celles du robot.
+     * @return La clé 64 bits.
+     */
+    private static long cleZobrist(int indice, long sel) {
+        long z = (indice + 1) * 0x9E3779B97F4A7C15L + sel;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Calcule la plus petite case accessible au robot sans pousser de caisse.
+     * @return L'indice de cette case.
+     */
+    private int calculerRobotNormalise() {
+        if (fileAccessibles == null) {
+            fileAccessibles = new int[terrain.length];
+            marquesAccessibles = new int[terrain.length];
+        }
+        int g = ++generationAccessibles;
+        int debut = 0;
+        int fin = 0;
+        int minimum = indiceRobot;
+        marquesAccessibles[indiceRobot] = g;
+        fileAccessibles[fin++] = indiceRobot;
+        while (debut < fin) {
+            int courante = fileAccessibles[debut++];
+            minimum = Math.min(minimum, courante);
+            int x = courante % largeur;
+            int y = courante / largeur;
+            for (Direction d : DIRECTIONS) {
+                int vx = x + d.getDx();
+                int vy = y + d.getDy();
+                if (!estDansLaGrille(vx, vy)) {
+                    continue;
+                }
+                int voisine = vy * largeur + vx;
+                if (marquesAccessibles[voisine] != g && terrain[voisine] != TERRAIN_MUR
+                        && !caisses.get(voisine)) {
+                    marquesAccessibles[voisine] = g;
+                    fileAccessibles[fin++] = voisine;
+                }
             }
         }
-        return false;
+        return minimum;
     }
 
     /**
      * Vérifie si la partie est terminée.
      * Une partie est terminée si toutes les destinations sont occupées par des caisses.
+     * Le test se fait en temps constant grâce au compteur de caisses placées.
      * @return true si la partie est terminée, false sinon.
      */
     public boolean finDePartie() {
-        for (Position dest : destinations) {
-            Element element = getElement(dest.x, dest.y);
-            if (!(element instanceof Caisse)) {
-                return false;
-            }
-        }
-        return true;
+        return nbCaissesPlacees == niveau.getDestinations().size();
+    }
+
+    /**
+     * Retourne le nombre de caisses actuellement placées sur une destination.
+     * @return Nombre de caisses placées.
+     */
+    public int getNbCaissesPlacees() {
+        return nbCaissesPlacees;
+    }
+
+    /**
+     * Retourne le nombre de destinations de la carte.
+     * @return Nombre de destinations.
+     */
+    public int getNbDestinations() {
+        return niveau.getDestinations().size();
     }
 
     /**
@@ -208,10 +889,10 @@ public class Carte {
      */
     @Override
     public String toString() {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < getHauteur(); i++) {
-            for (int j = 0; j < getLargeur(); j++) {
-                sb.append(elements[i][j].getSymbole());
+        StringBuilder sb = new StringBuilder((largeur + 1) * hauteur);
+        for (int i = 0; i < hauteur; i++) {
+            for (int j = 0; j < largeur; j++) {
+                sb.append(getSymbole(j, i));
             }
             sb.append("\n");
         }
@@ -219,10 +900,69 @@ public class Carte {
     }
 
     /**
-     * Retourne la liste des positions correspondant aux destinations sur la carte.
+     * Retourne la liste non modifiable des positions correspondant aux destinations sur la carte.
      * @return Liste des destinations.
      */
     public List<Position> getDestinations() {
-        return destinations;
+        return niveau.getDestinations();
+    }
+
+    /**
+     * Retourne le niveau dont la carte est une partie.
+     * @return Le niveau, partagé entre les cartes.
+     */
+    public Niveau getNiveau() {
+        return niveau;
+    }
+
+    /**
+     * Détection des impasses sur le terrain et les caisses de cette carte. Ses indices sont ceux
+     * d'une grille agrandie d'une bordure, {@code (y + 1) * (largeur + 2) + x + 1}, dont
+     * les cases hors de la carte sont des murs.
+     */
+    private final class ImpassesDeLaCarte extends DetectionDesImpasses {
+
+        /**
+         * Constructeur de la détection pour la carte englobante.
+         */
+        private ImpassesDeLaCarte() {
+            super(largeur + 2, nbCaisses);
+        }
+
+        /**
+         * Convertit un indice de la grille agrandie en indice de la carte.
+         *
+         * @param indice L'indice dans la grille agrandie.
+         * @return L'indice de la case sur la carte, ou -1 pour une case de la bordure.
+         */
+        private int versCarte(int indice) {
+            int x = indice % (largeur + 2) - 1;
+            int y = indice / (largeur + 2) - 1;
+            return estDansLaGrille(x, y) ? y * largeur + x : -1;
+        }
+
+        @Override
+        protected boolean estMur(int indice) {
+            int i = versCarte(indice);
+            return i < 0 || terrain[i] == TERRAIN_MUR;
+        }
+
+        @Override
+        protected boolean estDestination(int indice) {
+            int i = versCarte(indice);
+            return i >= 0 && terrain[i] == TERRAIN_DESTINATION;
+        }
+
+        @Override
+        protected boolean estCaseMorte(int indice) {
+            int i = versCarte(indice);
+            return i >= 0 && casesMortes.get(i);
+        }
+
+        @Override
+        protected boolean estCaisse(int indice) {
+            int i = versCarte(indice);
+            return i >= 0 && caisses.get(i);
+        }
     }
 }
@@ -0,0 +1,180 @@
+package modele;
+
+/**
+ * La classe DetectionDesImpasses reconnaît les caisses bloquées de façon définitive.
+ * Elle est partagée par {@link Carte}, qui signale les impasses aux interfaces,
+ * et par le solveur, qui écarte les poussées menant à une impasse.
+ * <p>
+ * Une caisse est bloquée si elle est sur une case morte, si elle forme un carré 2x2
+ * avec des murs ou d'autres caisses dont l'une n'est pas sur une destination, ou si
+ * elle est gelée (immobile sur les deux axes) avec une caisse gelée hors destination.
+ * <p>
+ * Les cases sont désignées par les indices d'une grille entourée d'une bordure de murs :
+ * la case voisine s'obtient en ajoutant 1 ou le pas vertical, sans test de bord.
+ * Chaque utilisateur fournit le terrain et les caisses dans cette numérotation.
+ * Une instance garde une pile de travail : elle ne doit servir qu'à un seul thread à la fois.
+ */
+public abstract class DetectionDesImpasses {
+
+    /**
+     * Décalage d'indice entre une case et la case située en dessous.
+     */
+    private final int pasVertical;
+
+    /**
+     * Pile des caisses en cours d'examen lors de la détection des caisses gelées ;
+     * ces caisses sont considérées comme des murs pour éviter les cycles.
+     */
+    private final int[] caissesExaminees;
+
+    /**
+     * Nombre de caisses dans {@link #caissesExaminees}.
+     */
+    private int nbCaissesExaminees;
+
+    /**
+     * Indique si la détection en cours a trouvé une caisse gelée hors destination.
+     */
+    private boolean geleeHorsDestination;
+
+    /**
+     * Constructeur d'une détection.
+     *
+     * @param pasVertical Le décalage d'indice entre une case et la case située en dessous.
+     * @param nbCaisses Le nombre de caisses du niveau.
+     */
+    protected DetectionDesImpasses(int pasVertical, int nbCaisses) {
+        this.pasVertical = pasVertical;
+        this.caissesExaminees = new int[nbCaisses + 1];
+    }
+
+    /**
+     * Indique si une case est un mur. Les cases de la bordure sont des murs.
+     *
+     * @param indice L'indice de la case.
+     * @return true si la case est infranchissable, false sinon.
+     */
+    protected abstract boolean estMur(int indice);
+
+    /**
+     * Indique si une case est une destination.
+     *
+     * @param indice L'indice de la case.
+     * @return true si la case est une destination, false sinon.
+     */
+    protected abstract boolean estDestination(int indice);
+
+    /**
+     * Indique si une case est morte : une caisse qui s'y trouve ne pourra jamais
+     * atteindre une destination.
+     *
+     * @param indice L'indice de la case, qui n'est pas un mur.
+     * @return true si la case est morte, false sinon.
+     */
+    protected abstract boolean estCaseMorte(int indice);
+
+    /**
+     * Indique si une case est occupée par une caisse.
+     *
+     * @param indice L'indice de la case.
+     * @return true si la case contient une caisse, false sinon.
+     */
+    protected abstract boolean estCaisse(int indice);
+
+    /**
+     * Indique si une caisse est bloquée de façon définitive. Le test ne vaut que si le niveau
+     * a autant de caisses que de destinations, ce que l'appelant doit vérifier.
+     *
+     * @param caisse L'indice de la case de la caisse.
+     * @return true si la caisse est bloquée, false sinon.
+     */
+    public boolean estBloquee(int caisse) {
+        if (estCaseMorte(caisse) || formeCarreBloque(caisse)) {
+            return true;
+        }
+        geleeHorsDestination = false;
+        nbCaissesExaminees = 0;
+        return estGelee(caisse) && geleeHorsDestination;
+    }
+
+    /**
+     * Indique si une caisse forme, avec trois cases voisines murées ou occupées
+     * par des caisses, un carré 2x2 contenant une caisse hors destination.
+     *
+     * @param caisse L'indice de la case de la caisse.
+     * @return true si un tel carré existe, false sinon.
+     */
+    private boolean formeCarreBloque(int caisse) {
+        for (int dx = -1; dx <= 0; dx++) {
+            for (int dy = -1; dy <= 0; dy++) {
+                int coin = caisse + dx + dy * pasVertical;
+                boolean bloque = true;
+                boolean horsDestination = false;
+                for (int i = 0; i < 4 && bloque; i++) {
+                    int c = coin + (i & 1) + (i >> 1) * pasVertical;
+                    if (estCaisse(c)) {
+                        horsDestination |= !estDestination(c);
+                    } else {
+                        bloque = estMur(c);
+                    }
+                }
+                if (bloque && horsDestination) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indique si une caisse est gelée, c'est-à-dire immobile à la fois
+     * horizontalement et verticalement. Les caisses voisines sont examinées
+     * récursivement, la caisse courante étant alors considérée comme un mur.
+     *
+     * @param caisse L'indice de la case de la caisse.
+     * @return true si la caisse est gelée, false sinon.
+     */
+    private boolean estGelee(int caisse) {
+        caissesExaminees[nbCaissesExaminees++] = caisse;
+        boolean gelee = estBloqueeSurAxe(caisse, 1) && estBloqueeSurAxe(caisse, pasVertical);
+        nbCaissesExaminees--;
+        if (gelee && !estDestination(caisse)) {
+            geleeHorsDestination = true;
+        }
+        return gelee;
+    }
+
+    /**
+     * Indique si une caisse ne peut pas être poussée le long d'un axe.
+     *
+     * @param caisse L'indice de la case de la caisse.
+     * @param pas Le décalage d'indice de l'axe (1 pour l'horizontale, le pas vertical sinon).
+     * @return true si la caisse est bloquée sur cet axe, false sinon.
+     */
+    private boolean estBloqueeSurAxe(int caisse, int pas) {
+        int a = caisse - pas;
+        int b = caisse + pas;
+        if (estMur(a) || estMur(b) || estEnExamen(a) || estEnExamen(b)) {
+            return true;
+        }
+        if (estCaseMorte(a) && estCaseMorte(b)) {
+            return true;
+        }
+        return (estCaisse(a) && estGelee(a)) || (estCaisse(b) && estGelee(b));
+    }
+
+    /**
+     * Indique si une case contient une caisse en cours d'examen de gel.
+     *
+     * @param indice L'indice de la case.
+     * @return true si la caisse est en cours d'examen, false sinon.
+     */
+    private boolean estEnExamen(int indice) {
+        for (int i = 0; i < nbCaissesExaminees; i++) {
+            if (caissesExaminees[i] == indice) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
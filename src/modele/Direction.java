@@ -4,25 +4,83 @@ package modele;
  * L'énumération Direction représente les quatre directions possibles dans le jeu :
  * haut, bas, gauche et droite. 
  * Elle est utilisée pour gérer les déplacements du robot ou des éléments sur la carte.
+ * Chaque direction porte son décalage (dx, dy) sur la grille.
  */
 public enum Direction {
     /**
      * Déplacement vers le haut.
      */
-    HAUT, 
+    HAUT(0, -1), 
 
     /**
      * Déplacement vers le bas.
      */
-    BAS, 
+    BAS(0, 1), 
 
     /**
      * Déplacement vers la gauche.
      */
-    GAUCHE, 
+    GAUCHE(-1, 0), 
 
     /**
      * Déplacement vers la droite.
      */
-    DROITE
+    DROITE(1, 0);
+
+    /**
+     * Décalage horizontal appliqué par la direction.
+     */
+    private final int dx;
+
+    /**
+     * Décalage vertical appliqué par la direction.
+     */
+    private final int dy;
+
+    /**
+     * Constructeur d'une direction.
+     *
+     * @param dx Le décalage horizontal.
+     * @param dy Le décalage vertical.
+     */
+    Direction(int dx, int dy) {
+        this.dx = dx;
+        this.dy = dy;
+    }
+
+    /**
+     * Retourne le décalage horizontal de la direction.
+     *
+     * @return -1, 0 ou 1.
+     */
+    public int getDx() {
+        return dx;
+    }
+
+    /**
+     * Retourne le décalage vertical de la direction.
+     *
+     * @return -1, 0 ou 1.
+     */
+    public int getDy() {
+        return dy;
+    }
+
+    /**
+     * Retourne la direction correspondant à une lettre de la notation LURD
+     * (l : gauche, u : haut, r : droite, d : bas). Les minuscules notent un déplacement
+     * et les majuscules une poussée, mais la direction est la même.
+     *
+     * @param lettre La lettre LURD.
+     * @return La direction, ou null si la lettre n'est pas une lettre LURD.
+     */
+    public static Direction depuisLurd(char lettre) {
+        return switch (lettre) {
+            case 'l', 'L' -> GAUCHE;
+            case 'u', 'U' -> HAUT;
+            case 'r', 'R' -> DROITE;
+            case 'd', 'D' -> BAS;
+            default -> null;
+        };
+    }
 }
@@ -0,0 +1,276 @@
+package modele;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * La classe GenerateurDeNiveaux fabrique des niveaux aléatoires d'une taille
+ * et d'un nombre de caisses donnés.
+ * <p>
+ * Le sol est creusé dans un bloc de murs par une marche aléatoire qui ouvre de petites
+ * salles en chemin. Les caisses sont posées sur leurs destinations, puis mélangées
+ * en sens inverse du jeu : le robot tire les caisses au lieu de les pousser. Chaque tirage
+ * peut être annulé par une poussée, donc le niveau obtenu a toujours une solution ;
+ * sa difficulté reste à mesurer par un solveur.
+ * <p>
+ * Un générateur ne garde aucun état entre deux niveaux : il peut être partagé entre
+ * plusieurs threads tant que chacun utilise son propre {@link Random}.
+ */
+public class GenerateurDeNiveaux {
+
+    /**
+     * Proportion de l'intérieur du niveau creusée en sol.
+     */
+    private static final double PROPORTION_SOL = 0.5;
+
+    /**
+     * Probabilité d'ouvrir une salle à chaque pas de la marche aléatoire.
+     */
+    private static final double PROBABILITE_SALLE = 0.15;
+
+    /**
+     * Probabilité de continuer à tirer la même caisse dans la même direction.
+     */
+    private static final double PROBABILITE_PROLONGER = 0.6;
+
+    /**
+     * Ensemble des directions, partagé pour éviter la copie faite par {@code Direction.values()}.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * Largeur des niveaux générés, murs extérieurs compris.
+     */
+    private final int largeur;
+
+    /**
+     * Hauteur des niveaux générés, murs extérieurs compris.
+     */
+    private final int hauteur;
+
+    /**
+     * Nombre de caisses des niveaux générés.
+     */
+    private final int nbCaisses;
+
+    /**
+     * Constructeur d'un générateur.
+     *
+     * @param largeur Largeur des niveaux, murs extérieurs compris (au moins 5).
+     * @param hauteur Hauteur des niveaux, murs extérieurs compris (au moins 5).
+     * @param nbCaisses Nombre de caisses (au moins 1).
+     */
+    public GenerateurDeNiveaux(int largeur, int hauteur, int nbCaisses) {
+        if (largeur < 5 || hauteur < 5 || nbCaisses < 1
+                || 3 * nbCaisses + 2 > PROPORTION_SOL * (largeur - 2) * (hauteur - 2)) {
+            throw new IllegalArgumentException("Dimensions invalides : " + largeur + "x" + hauteur
+                    + " avec " + nbCaisses + " caisses");
+        }
+        this.largeur = largeur;
+        this.hauteur = hauteur;
+        this.nbCaisses = nbCaisses;
+    }
+
+    /**
+     * Tente de générer un niveau.
+     *
+     * @param aleatoire La source de hasard, propre au thread appelant.
+     * @return Les lignes du niveau, dans le format lu par {@link Niveau}, ou null si la tentative
+     *         a échoué (une caisse n'a pas pu quitter sa destination).
+     */
+    public List<String> generer(Random aleatoire) {
+        boolean[] sol = creuser(aleatoire);
+        int[] cases = new int[largeur * hauteur];
+        int nbSol = 0;
+        for (int i = 0; i < sol.length; i++) {
+            if (sol[i]) {
+                cases[nbSol++] = i;
+            }
+        }
+
+        // État résolu : chaque caisse sur sa destination, le robot sur une autre case du sol.
+        melanger(cases, nbSol, aleatoire);
+        boolean[] destinations = new boolean[sol.length];
+        boolean[] caisses = new boolean[sol.length];
+        int[] positions = new int[nbCaisses];
+        for (int k = 0; k < nbCaisses; k++) {
+            destinations[cases[k]] = true;
+            caisses[cases[k]] = true;
+            positions[k] = cases[k];
+        }
+        int robot = cases[nbCaisses];
+
+        robot = tirerCaisses(sol, caisses, positions, robot, aleatoire);
+        for (int position : positions) {
+            if (destinations[position]) {
+                return null;
+            }
+        }
+        return ecrire(sol, destinations, caisses, robot);
+    }
+
+    /**
+     * Creuse le sol par une marche aléatoire partant du centre, en gardant une bordure de murs.
+     *
+     * @param aleatoire La source de hasard.
+     * @return Les cases de sol, indexées par {@code y * largeur + x}.
+     */
+    private boolean[] creuser(Random aleatoire) {
+        boolean[] sol = new boolean[largeur * hauteur];
+        int objectif = (int) (PROPORTION_SOL * (largeur - 2) * (hauteur - 2));
+        int creusees = 0;
+        int x = largeur / 2;
+        int y = hauteur / 2;
+        for (int pas = 0; creusees < objectif && pas < 100 * largeur * hauteur; pas++) {
+            int cote = aleatoire.nextDouble() < PROBABILITE_SALLE ? 2 + aleatoire.nextInt(2) : 1;
+            for (int dy = 0; dy < cote; dy++) {
+                for (int dx = 0; dx < cote; dx++) {
+                    int cx = Math.min(x + dx, largeur - 2);
+                    int cy = Math.min(y + dy, hauteur - 2);
+                    if (!sol[cy * largeur + cx]) {
+                        sol[cy * largeur + cx] = true;
+                        creusees++;
+                    }
+                }
+            }
+            Direction d = DIRECTIONS[aleatoire.nextInt(DIRECTIONS.length)];
+            x = Math.max(1, Math.min(largeur - 2, x + d.getDx()));
+            y = Math.max(1, Math.min(hauteur - 2, y + d.getDy()));
+        }
+        return sol;
+    }
+
+    /**
+     * Mélange l'état résolu par des tirages aléatoires. À chaque étape, le robot rejoint
+     * une case voisine d'une caisse sans rien déplacer, puis recule en tirant la caisse
+     * derrière lui, parfois sur plusieurs cases.
+     *
+     * @param sol Les cases de sol.
+     * @param caisses Les cases occupées par une caisse, mises à jour.
+     * @param positions La case de chaque caisse, mise à jour.
+     * @param robot La case de départ du robot.
+     * @param aleatoire La source de hasard.
+     * @return La case finale du robot.
+     */
+    private int tirerCaisses(boolean[] sol, boolean[] caisses, int[] positions, int robot, Random aleatoire) {
+        int[] decalages = new int[DIRECTIONS.length];
+        for (int d = 0; d < DIRECTIONS.length; d++) {
+            decalages[d] = DIRECTIONS[d].getDy() * largeur + DIRECTIONS[d].getDx();
+        }
+        boolean[] accessibles = new boolean[sol.length];
+        int[] file = new int[sol.length];
+        int[] tirages = new int[nbCaisses * DIRECTIONS.length];
+        int nbEtapes = 4 * nbCaisses * (largeur + hauteur);
+        for (int etape = 0; etape < nbEtapes; etape++) {
+            int nbAccessibles = accessibles(sol, caisses, robot, accessibles, file);
+
+            // Tirage possible : le robot se place à côté de la caisse et recule d'une case libre.
+            int nbTirages = 0;
+            for (int k = 0; k < nbCaisses; k++) {
+                for (int d = 0; d < decalages.length; d++) {
+                    int cote = positions[k] + decalages[d];
+                    int recul = cote + decalages[d];
+                    if (accessibles[cote] && sol[recul] && !caisses[recul]) {
+                        tirages[nbTirages++] = k << 2 | d;
+                    }
+                }
+            }
+            for (int i = 0; i < nbAccessibles; i++) {
+                accessibles[file[i]] = false;
+            }
+            if (nbTirages == 0) {
+                break;
+            }
+
+            int tirage = tirages[aleatoire.nextInt(nbTirages)];
+            int k = tirage >>> 2;
+            int decalage = decalages[tirage & 3];
+            do {
+                caisses[positions[k]] = false;
+                positions[k] += decalage;
+                caisses[positions[k]] = true;
+                robot = positions[k] + decalage;
+            } while (sol[robot + decalage] && !caisses[robot + decalage]
+                    && aleatoire.nextDouble() < PROBABILITE_PROLONGER);
+        }
+        return robot;
+    }
+
+    /**
+     * Marque les cases que le robot peut atteindre sans déplacer de caisse.
+     *
+     * @param sol Les cases de sol.
+     * @param caisses Les cases occupées par une caisse.
+     * @param robot La case du robot.
+     * @param accessibles Les marques à remplir, toutes à false à l'appel.
+     * @param file La file du parcours, qui contient ensuite les cases marquées.
+     * @return Le nombre de cases marquées.
+     */
+    private int accessibles(boolean[] sol, boolean[] caisses, int robot, boolean[] accessibles, int[] file) {
+        int fin = 0;
+        accessibles[robot] = true;
+        file[fin++] = robot;
+        for (int debut = 0; debut < fin; debut++) {
+            int c = file[debut];
+            int[] voisines = {c - 1, c + 1, c - largeur, c + largeur};
+            for (int v : voisines) {
+                if (sol[v] && !caisses[v] && !accessibles[v]) {
+                    accessibles[v] = true;
+                    file[fin++] = v;
+                }
+            }
+        }
+        return fin;
+    }
+
+    /**
+     * Écrit un niveau avec les symboles des paquets de niveaux. Toute case qui n'est pas
+     * du sol devient un mur, pour qu'aucune case vide ne reste praticable.
+     *
+     * @param sol Les cases de sol.
+     * @param destinations Les destinations.
+     * @param caisses Les cases occupées par une caisse.
+     * @param robot La case du robot.
+     * @return Les lignes du niveau.
+     */
+    private List<String> ecrire(boolean[] sol, boolean[] destinations, boolean[] caisses, int robot) {
+        List<String> lignes = new ArrayList<>(hauteur);
+        StringBuilder ligne = new StringBuilder(largeur);
+        for (int y = 0; y < hauteur; y++) {
+            ligne.setLength(0);
+            for (int x = 0; x < largeur; x++) {
+                int i = y * largeur + x;
+                char symbole;
+                if (!sol[i]) {
+                    symbole = '#';
+                } else if (i == robot) {
+                    symbole = destinations[i] ? '+' : '@';
+                } else if (caisses[i]) {
+                    symbole = destinations[i] ? '*' : '$';
+                } else {
+                    symbole = destinations[i] ? '.' : ' ';
+                }
+                ligne.append(symbole);
+            }
+            lignes.add(ligne.toString());
+        }
+        return lignes;
+    }
+
+    /**
+     * Mélange les premières valeurs d'un tableau (Fisher-Yates).
+     *
+     * @param valeurs Le tableau.
+     * @param n Le nombre de valeurs à mélanger.
+     * @param aleatoire La source de hasard.
+     */
+    private static void melanger(int[] valeurs, int n, Random aleatoire) {
+        for (int i = n - 1; i > 0; i--) {
+            int j = aleatoire.nextInt(i + 1);
+            int valeur = valeurs[i];
+            valeurs[i] = valeurs[j];
+            valeurs[j] = valeur;
+        }
+    }
+}
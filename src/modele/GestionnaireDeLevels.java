@@ -1,25 +1,69 @@
 package modele;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
 
 /**
  * La classe GestionnaireDeLevels permet de gérer les différents niveaux dans le jeu.
  * Elle organise les chemins vers les fichiers des cartes des niveaux et contrôle
- * la navigation entre ceux-ci.
+ * la navigation entre ceux-ci. Les niveaux peuvent aussi provenir d'un
+ * {@link PaquetDeNiveaux}, dont ils sont alors décodés un par un à la demande.
+ * <p>
+ * Chaque niveau lu est gardé sous forme de {@link Niveau} immuable : une partie neuve
+ * n'en recopie que les caisses de départ, ce qui rend le redémarrage d'un niveau immédiat. Le niveau
+ * suivant est préparé en arrière-plan pendant que le joueur résout le niveau courant.
+ * Seuls les derniers niveaux utilisés sont gardés, pour borner la mémoire avec les grands paquets.
  */
 public class GestionnaireDeLevels {
 
+    /**
+     * Nombre maximal de niveaux analysés gardés en mémoire.
+     */
+    private static final int CAPACITE_CACHE = 16;
+
     /**
      * Liste des chemins des fichiers de cartes, représentant les niveaux du jeu.
      */
     private final List<String> cheminsDesCartes;
 
+    /**
+     * Paquet fournissant les niveaux, ou null si les niveaux sont des fichiers séparés.
+     */
+    private final PaquetDeNiveaux paquet;
+
     /**
      * Numéro du niveau actuellement en cours. L'index commence à 0.
      */
     private int niveauCourant;
 
+    /**
+     * Niveaux déjà analysés ou en cours d'analyse, indexés par numéro de niveau,
+     * de la moins récemment utilisée à la plus récemment utilisée.
+     */
+    private final Map<Integer, FutureTask<Niveau>> modeles =
+            new LinkedHashMap<>(CAPACITE_CACHE, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, FutureTask<Niveau>> plusAncien) {
+                    return size() > CAPACITE_CACHE;
+                }
+            };
+
+    /**
+     * Thread de préparation du niveau suivant. Java 17 n'a pas de threads virtuels :
+     * un unique thread démon classique suffit.
+     */
+    private final ExecutorService prechargement = Executors.newSingleThreadExecutor(tache -> {
+        Thread thread = new Thread(tache, "prechargement-niveaux");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     /**
      * Constructeur par défaut du GestionnaireDeLevels.
      * Initialise la liste des niveaux avec les chemins des fichiers correspondants
@@ -30,22 +74,160 @@ public class GestionnaireDeLevels {
         cheminsDesCartes.add("./src/map/map1.txt");
         cheminsDesCartes.add("./src/map/map2.txt");
         cheminsDesCartes.add("./src/map/map3.txt");
+        paquet = null;
+        niveauCourant = 0;
+    }
+
+    /**
+     * Constructeur du GestionnaireDeLevels pour les niveaux d'un paquet.
+     * Positionne le niveau courant au premier niveau du paquet.
+     *
+     * @param paquet Le paquet de niveaux à parcourir.
+     */
+    public GestionnaireDeLevels(PaquetDeNiveaux paquet) {
+        cheminsDesCartes = new ArrayList<>();
+        this.paquet = paquet;
         niveauCourant = 0;
     }
 
     /**
      * Retourne le chemin du niveau actuellement en cours.
+     * Pour un paquet, le chemin est suivi du numéro du niveau dans le paquet.
      * 
      * @return Le chemin du fichier représentant le niveau courant, 
      *         ou null si aucun niveau n'est disponible.
      */
     public String getNiveauCourant() {
-        if (niveauCourant < cheminsDesCartes.size()) {
-            return cheminsDesCartes.get(niveauCourant);
+        if (niveauCourant < getNbNiveaux()) {
+            return paquet != null ? paquet.getChemin() + " #" + (niveauCourant + 1)
+                    : cheminsDesCartes.get(niveauCourant);
         }
         return null; 
     }
 
+    /**
+     * Retourne les lignes de la carte du niveau courant, lues depuis son fichier
+     * ou décodées depuis le paquet.
+     *
+     * @return Les lignes de la carte, vide si le niveau ne peut pas être lu
+     *         ou si aucun niveau n'est disponible.
+     */
+    public List<String> getLignesNiveauCourant() {
+        return getLignes(niveauCourant);
+    }
+
+    /**
+     * Retourne les lignes de la carte d'un niveau.
+     *
+     * @param numero Le numéro du niveau, à partir de 0.
+     * @return Les lignes de la carte, vide si le niveau ne peut pas être lu ou n'existe pas.
+     */
+    private List<String> getLignes(int numero) {
+        if (numero < 0 || numero >= getNbNiveaux()) {
+            return new ArrayList<>();
+        }
+        if (paquet != null) {
+            return paquet.getLignes(numero);
+        }
+        return new Lecture(cheminsDesCartes.get(numero)).getLignes();
+    }
+
+    /**
+     * Crée une partie neuve du niveau courant à partir du niveau analysé,
+     * puis lance la préparation du niveau suivant en arrière-plan.
+     *
+     * @return La carte du niveau courant, ou null si le niveau ne peut pas être lu
+     *         ou si aucun niveau n'est disponible.
+     */
+    public Carte creerCarteNiveauCourant() {
+        Niveau niveau = getNiveau(niveauCourant);
+        precharger(niveauCourant + 1);
+        return niveau != null ? new Carte(niveau) : null;
+    }
+
+    /**
+     * Retourne un niveau analysé, en le lisant s'il n'est pas en cache.
+     * Si le niveau est déjà en cours de lecture par un autre thread, attend la fin de cette lecture.
+     *
+     * @param numero Le numéro du niveau, à partir de 0.
+     * @return Le niveau, ou null s'il ne peut pas être lu.
+     */
+    private Niveau getNiveau(int numero) {
+        FutureTask<Niveau> tache;
+        synchronized (modeles) {
+            tache = modeles.get(numero);
+            if (tache == null) {
+                tache = new FutureTask<>(() -> lireNiveau(numero));
+                modeles.put(numero, tache);
+            }
+        }
+        // Sans effet si la tâche est déjà terminée ou lancée par un autre thread.
+        tache.run();
+        try {
+            Niveau niveau = tache.get();
+            if (niveau == null) {
+                oublier(numero, tache);
+            }
+            return niveau;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            System.err.println("Erreur: Niveau " + (numero + 1) + " illisible : " + e.getCause());
+            oublier(numero, tache);
+            return null;
+        }
+    }
+
+    /**
+     * Lit et analyse un niveau.
+     *
+     * @param numero Le numéro du niveau, à partir de 0.
+     * @return Le niveau, ou null s'il est vide ou ne peut pas être lu.
+     */
+    private Niveau lireNiveau(int numero) {
+        List<String> lignes = getLignes(numero);
+        return lignes.isEmpty() ? null : new Niveau(lignes);
+    }
+
+    /**
+     * Retire du cache la lecture d'un niveau qui a échoué, pour qu'elle soit retentée.
+     *
+     * @param numero Le numéro du niveau.
+     * @param tache La lecture qui a échoué.
+     */
+    private void oublier(int numero, FutureTask<Niveau> tache) {
+        synchronized (modeles) {
+            modeles.remove(numero, tache);
+        }
+    }
+
+    /**
+     * Prépare en arrière-plan l'analyse d'un niveau, s'il existe et n'est pas déjà en cache.
+     *
+     * @param numero Le numéro du niveau, à partir de 0.
+     */
+    private void precharger(int numero) {
+        if (numero >= getNbNiveaux()) {
+            return;
+        }
+        synchronized (modeles) {
+            if (modeles.containsKey(numero)) {
+                return;
+            }
+        }
+        prechargement.execute(() -> getNiveau(numero));
+    }
+
+    /**
+     * Retourne le nombre de niveaux disponibles.
+     *
+     * @return Le nombre de niveaux.
+     */
+    public int getNbNiveaux() {
+        return paquet != null ? paquet.getNbNiveaux() : cheminsDesCartes.size();
+    }
+
     /**
      * Passe au niveau suivant dans la liste des niveaux.
      * 
@@ -54,7 +236,7 @@ public class GestionnaireDeLevels {
      */
     public boolean passerAuNiveauSuivant() {
         niveauCourant++;
-        return niveauCourant < cheminsDesCartes.size();
+        return niveauCourant < getNbNiveaux();
     }
 
     /**
@@ -63,7 +245,7 @@ public class GestionnaireDeLevels {
      * @return true si le niveau courant est le dernier niveau, false sinon.
      */
     public boolean estDernierNiveau() {
-        return niveauCourant == cheminsDesCartes.size() - 1;
+        return niveauCourant == getNbNiveaux() - 1;
     }
 
     /**
@@ -0,0 +1,335 @@
+package modele;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * La classe Niveau représente le modèle immuable d'un niveau, construit une seule fois
+ * à partir des lignes lues par {@link Lecture} ou décodées depuis un {@link PaquetDeNiveaux}.
+ * <p>
+ * Elle contient tout ce qui ne change jamais pendant une partie : les dimensions, le terrain
+ * statique (mur, sol, destination, vide), les destinations, les cases mortes, ainsi que
+ * la position de départ des caisses et du robot. Un niveau peut être partagé sans risque
+ * entre plusieurs {@link Carte} et entre plusieurs threads : une carte n'en recopie que
+ * l'état de départ des caisses.
+ */
+public final class Niveau {
+
+    /**
+     * Distance en poussées des cases depuis lesquelles aucune caisse ne peut atteindre une destination.
+     */
+    public static final int INACCESSIBLE = Integer.MAX_VALUE;
+
+    /**
+     * Ensemble des directions, partagé pour éviter la copie faite par {@code Direction.values()}.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * Largeur du niveau (nombre de colonnes).
+     */
+    private final int largeur;
+
+    /**
+     * Hauteur du niveau (nombre de lignes).
+     */
+    private final int hauteur;
+
+    /**
+     * Terrain statique de chaque case, indexé par {@code y * largeur + x}.
+     * Jamais modifié après la construction.
+     */
+    private final byte[] terrain;
+
+    /**
+     * Positions des destinations, dans l'ordre de lecture.
+     */
+    private final List<Position> destinations;
+
+    /**
+     * Nombre minimal de poussées pour amener une caisse de chaque case jusqu'à une destination,
+     * en ignorant les autres caisses, ou {@link #INACCESSIBLE}. Jamais modifié après la construction.
+     */
+    private final int[] distancesPoussees;
+
+    /**
+     * Cases mortes : cases hors mur depuis lesquelles aucune caisse ne peut atteindre
+     * une destination. Jamais modifiées après la construction.
+     */
+    private final BitSet casesMortes;
+
+    /**
+     * Nombre de cases mortes.
+     */
+    private final int nbCasesMortes;
+
+    /**
+     * Cases occupées par une caisse au début de la partie. Jamais modifiées après la construction.
+     */
+    private final BitSet caissesInitiales;
+
+    /**
+     * Nombre de caisses du niveau.
+     */
+    private final int nbCaisses;
+
+    /**
+     * Nombre de caisses déjà placées sur une destination au début de la partie.
+     */
+    private final int nbCaissesPlaceesInitiales;
+
+    /**
+     * Indice de la case de départ du robot, ou -1 s'il n'y a pas de robot.
+     */
+    private final int indiceRobotInitial;
+
+    /**
+     * Partie du hachage de Zobrist due aux caisses de départ.
+     */
+    private final long hashCaissesInitial;
+
+    /**
+     * Constructeur : analyse les lignes d'un niveau. En plus des symboles de base, les symboles
+     * {@code *} (caisse sur une destination) et {@code +} (robot sur une destination)
+     * des paquets de niveaux sont reconnus.
+     * Les lignes peuvent être de longueurs différentes : la largeur est celle de la plus longue,
+     * et les caractères manquants en fin de ligne sont des cases vides.
+     * @param lignes Liste de chaînes, où chaque caractère correspond à un élément.
+     */
+    public Niveau(List<String> lignes) {
+        hauteur = lignes.size();
+        int plusLongue = 0;
+        for (String ligne : lignes) {
+            plusLongue = Math.max(plusLongue, ligne.length());
+        }
+        largeur = plusLongue;
+        terrain = new byte[largeur * hauteur];
+        caissesInitiales = new BitSet(largeur * hauteur);
+
+        List<Position> positions = new ArrayList<>();
+        int placees = 0;
+        int robot = -1;
+        for (int i = 0; i < hauteur; i++) {
+            String ligne = lignes.get(i);
+            for (int j = 0; j < largeur; j++) {
+                char c = j < ligne.length() ? ligne.charAt(j) : ' ';
+                int indice = i * largeur + j;
+                switch (c) {
+                    case '#' -> terrain[indice] = Carte.TERRAIN_MUR;
+                    case ' ' -> terrain[indice] = Carte.TERRAIN_VIDE;
+                    case '.' -> {
+                        terrain[indice] = Carte.TERRAIN_DESTINATION;
+                        positions.add(new Position(j, i));
+                    }
+                    case '$' -> {
+                        terrain[indice] = Carte.TERRAIN_SOL;
+                        caissesInitiales.set(indice);
+                    }
+                    case '*' -> {
+                        terrain[indice] = Carte.TERRAIN_DESTINATION;
+                        positions.add(new Position(j, i));
+                        caissesInitiales.set(indice);
+                        placees++;
+                    }
+                    case '@', '+' -> {
+                        if (c == '+') {
+                            terrain[indice] = Carte.TERRAIN_DESTINATION;
+                            positions.add(new Position(j, i));
+                        } else {
+                            terrain[indice] = Carte.TERRAIN_SOL;
+                        }
+                        robot = indice;
+                    }
+                    default -> terrain[indice] = Carte.TERRAIN_SOL;
+                }
+            }
+        }
+        destinations = List.copyOf(positions);
+        nbCaisses = caissesInitiales.cardinality();
+        nbCaissesPlaceesInitiales = placees;
+        indiceRobotInitial = robot;
+        hashCaissesInitial = Carte.hacherCaisses(caissesInitiales);
+        distancesPoussees = calculerDistancesPoussees(terrain, largeur, hauteur);
+        casesMortes = new BitSet(terrain.length);
+        for (int i = 0; i < terrain.length; i++) {
+            if (terrain[i] != Carte.TERRAIN_MUR && distancesPoussees[i] == INACCESSIBLE) {
+                casesMortes.set(i);
+            }
+        }
+        nbCasesMortes = casesMortes.cardinality();
+    }
+
+    /**
+     * Calcule les distances en poussées d'un terrain par un parcours en largeur inversé :
+     * partant des destinations, on tire une caisse dans chaque direction tant que
+     * la case d'arrivée et celle du robot qui tire ne sont pas des murs.
+     * Toute case hors mur jamais atteinte est morte. Ces distances servent à la fois
+     * aux cases mortes des cartes et à l'heuristique du solveur.
+     * @param terrain Le terrain du niveau.
+     * @param largeur La largeur du niveau.
+     * @param hauteur La hauteur du niveau.
+     * @return Le nombre minimal de poussées de chaque case, ou {@link #INACCESSIBLE}.
+     */
+    private static int[] calculerDistancesPoussees(byte[] terrain, int largeur, int hauteur) {
+        int[] distances = new int[terrain.length];
+        Arrays.fill(distances, INACCESSIBLE);
+        int[] file = new int[terrain.length];
+        int debut = 0;
+        int fin = 0;
+        for (int i = 0; i < terrain.length; i++) {
+            if (terrain[i] == Carte.TERRAIN_DESTINATION) {
+                distances[i] = 0;
+                file[fin++] = i;
+            }
+        }
+        while (debut < fin) {
+            int caisse = file[debut++];
+            int x = caisse % largeur;
+            int y = caisse / largeur;
+            for (Direction d : DIRECTIONS) {
+                // La caisse est tirée de "caisse" vers "precedente" par un robot qui finit en "robot".
+                int px = x - d.getDx();
+                int py = y - d.getDy();
+                int rx = px - d.getDx();
+                int ry = py - d.getDy();
+                if (rx < 0 || rx >= largeur || ry < 0 || ry >= hauteur
+                        || px < 0 || px >= largeur || py < 0 || py >= hauteur) {
+                    continue;
+                }
+                int precedente = py * largeur + px;
+                if (terrain[precedente] != Carte.TERRAIN_MUR && terrain[ry * largeur + rx] != Carte.TERRAIN_MUR
+                        && distances[precedente] == INACCESSIBLE) {
+                    distances[precedente] = distances[caisse] + 1;
+                    file[fin++] = precedente;
+                }
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Retourne la largeur du niveau.
+     * @return Largeur du niveau.
+     */
+    public int getLargeur() {
+        return largeur;
+    }
+
+    /**
+     * Retourne la hauteur du niveau.
+     * @return Hauteur du niveau.
+     */
+    public int getHauteur() {
+        return hauteur;
+    }
+
+    /**
+     * Retourne le code de terrain statique d'une case.
+     * @param x Coordonnée X.
+     * @param y Coordonnée Y.
+     * @return Un des codes {@code Carte.TERRAIN_*}, ou {@link Carte#TERRAIN_VIDE} hors de la grille.
+     */
+    public byte getTerrain(int x, int y) {
+        if (x < 0 || x >= largeur || y < 0 || y >= hauteur) {
+            return Carte.TERRAIN_VIDE;
+        }
+        return terrain[y * largeur + x];
+    }
+
+    /**
+     * Retourne le nombre minimal de poussées pour amener une caisse d'une case
+     * jusqu'à une destination, en ignorant les autres caisses.
+     * @param x Coordonnée X.
+     * @param y Coordonnée Y.
+     * @return La distance en poussées, ou {@link #INACCESSIBLE} pour un mur,
+     *         une case morte ou une position hors de la grille.
+     */
+    public int getDistancePoussees(int x, int y) {
+        if (x < 0 || x >= largeur || y < 0 || y >= hauteur) {
+            return INACCESSIBLE;
+        }
+        return distancesPoussees[y * largeur + x];
+    }
+
+    /**
+     * Retourne la liste non modifiable des destinations du niveau.
+     * @return Liste des destinations.
+     */
+    public List<Position> getDestinations() {
+        return destinations;
+    }
+
+    /**
+     * Retourne le nombre de caisses du niveau.
+     * @return Nombre de caisses.
+     */
+    public int getNbCaisses() {
+        return nbCaisses;
+    }
+
+    /**
+     * Retourne le nombre de cases mortes du niveau.
+     * @return Nombre de cases mortes.
+     */
+    public int getNbCasesMortes() {
+        return nbCasesMortes;
+    }
+
+    /**
+     * Crée une partie neuve de ce niveau.
+     * @return Une carte dans l'état de départ du niveau.
+     */
+    public Carte creerCarte() {
+        return new Carte(this);
+    }
+
+    /**
+     * Retourne le terrain partagé du niveau, que les cartes ne doivent pas modifier.
+     * @return Le tableau du terrain.
+     */
+    byte[] getCasesTerrain() {
+        return terrain;
+    }
+
+    /**
+     * Retourne les cases mortes partagées du niveau, que les cartes ne doivent pas modifier.
+     * @return L'ensemble des cases mortes.
+     */
+    BitSet getCasesMortes() {
+        return casesMortes;
+    }
+
+    /**
+     * Retourne les cases de départ des caisses, que les cartes doivent copier avant de jouer.
+     * @return L'ensemble des caisses de départ.
+     */
+    BitSet getCaissesInitiales() {
+        return caissesInitiales;
+    }
+
+    /**
+     * Retourne le nombre de caisses placées au début de la partie.
+     * @return Nombre de caisses placées au départ.
+     */
+    int getNbCaissesPlaceesInitiales() {
+        return nbCaissesPlaceesInitiales;
+    }
+
+    /**
+     * Retourne l'indice de la case de départ du robot.
+     * @return L'indice, ou -1 s'il n'y a pas de robot.
+     */
+    int getIndiceRobotInitial() {
+        return indiceRobotInitial;
+    }
+
+    /**
+     * Retourne la partie du hachage de Zobrist due aux caisses de départ.
+     * @return Le hachage des caisses de départ.
+     */
+    long getHashCaissesInitial() {
+        return hashCaissesInitial;
+    }
+}
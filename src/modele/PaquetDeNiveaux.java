@@ -0,0 +1,205 @@
+package modele;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * La classe PaquetDeNiveaux donne accès aux niveaux d'un fichier multi-niveaux
+ * au format standard {@code .sok} / {@code .xsb}.
+ * <p>
+ * Le fichier est projeté en mémoire par {@link FileChannel#map}, puis parcouru une seule fois
+ * pour construire un index des positions de début et de fin de chaque niveau. Un niveau n'est
+ * décodé qu'au moment où il est demandé : l'ouverture d'un paquet de plusieurs dizaines de
+ * milliers de niveaux est quasi immédiate, et la mémoire utilisée ne dépend que de l'index
+ * et des niveaux réellement joués.
+ * <p>
+ * Un niveau est une suite de lignes consécutives ne contenant que des symboles de carte
+ * ({@code # @ + $ * . - _} et l'espace) et au moins un mur. Toutes les autres lignes
+ * (titres, commentaires, solutions) séparent les niveaux et sont ignorées.
+ */
+public class PaquetDeNiveaux {
+
+    /**
+     * Contenu du fichier projeté en mémoire, en lecture seule.
+     */
+    private final MappedByteBuffer contenu;
+
+    /**
+     * Chemin du fichier du paquet.
+     */
+    private final String chemin;
+
+    /**
+     * Position du premier octet de chaque niveau dans le fichier.
+     */
+    private int[] debuts;
+
+    /**
+     * Position suivant le dernier octet de chaque niveau dans le fichier.
+     */
+    private int[] fins;
+
+    /**
+     * Nombre de niveaux trouvés dans le fichier.
+     */
+    private int nbNiveaux;
+
+    /**
+     * Ouvre un paquet de niveaux et construit l'index de ses niveaux.
+     *
+     * @param chemin Le chemin du fichier du paquet.
+     * @throws IOException Si le fichier ne peut pas être lu, ou dépasse 2 Go.
+     */
+    public PaquetDeNiveaux(String chemin) throws IOException {
+        this.chemin = chemin;
+        try (FileChannel canal = FileChannel.open(Path.of(chemin), StandardOpenOption.READ)) {
+            if (canal.size() > Integer.MAX_VALUE) {
+                throw new IOException("Le paquet " + chemin + " dépasse 2 Go");
+            }
+            contenu = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+        indexer();
+    }
+
+    /**
+     * Parcourt le fichier ligne par ligne et enregistre les bornes de chaque niveau.
+     */
+    private void indexer() {
+        debuts = new int[64];
+        fins = new int[64];
+        int limite = contenu.limit();
+        int debutNiveau = -1;
+        int finNiveau = -1;
+        int position = 0;
+        while (position < limite) {
+            int finLigne = position;
+            while (finLigne < limite && contenu.get(finLigne) != '\n') {
+                finLigne++;
+            }
+            if (estLigneDeCarte(position, finLigne)) {
+                if (debutNiveau < 0) {
+                    debutNiveau = position;
+                }
+                finNiveau = finLigne;
+            } else if (debutNiveau >= 0) {
+                ajouterNiveau(debutNiveau, finNiveau);
+                debutNiveau = -1;
+            }
+            position = finLigne + 1;
+        }
+        if (debutNiveau >= 0) {
+            ajouterNiveau(debutNiveau, finNiveau);
+        }
+    }
+
+    /**
+     * Indique si une ligne du fichier fait partie d'une carte.
+     *
+     * @param debut Position du premier octet de la ligne.
+     * @param fin Position du saut de ligne terminant la ligne.
+     * @return true si la ligne ne contient que des symboles de carte et au moins un mur.
+     */
+    private boolean estLigneDeCarte(int debut, int fin) {
+        boolean mur = false;
+        for (int i = debut; i < fin; i++) {
+            switch (contenu.get(i)) {
+                case '#' -> mur = true;
+                case ' ', '\t', '\r', '@', '+', '$', '*', '.', '-', '_' -> {
+                }
+                default -> {
+                    return false;
+                }
+            }
+        }
+        return mur;
+    }
+
+    /**
+     * Ajoute les bornes d'un niveau à l'index, en agrandissant les tableaux si besoin.
+     *
+     * @param debut Position du premier octet du niveau.
+     * @param fin Position suivant le dernier octet du niveau.
+     */
+    private void ajouterNiveau(int debut, int fin) {
+        if (nbNiveaux == debuts.length) {
+            debuts = Arrays.copyOf(debuts, nbNiveaux * 2);
+            fins = Arrays.copyOf(fins, nbNiveaux * 2);
+        }
+        debuts[nbNiveaux] = debut;
+        fins[nbNiveaux] = fin;
+        nbNiveaux++;
+    }
+
+    /**
+     * Retourne le nombre de niveaux du paquet.
+     *
+     * @return Le nombre de niveaux.
+     */
+    public int getNbNiveaux() {
+        return nbNiveaux;
+    }
+
+    /**
+     * Retourne le chemin du fichier du paquet.
+     *
+     * @return Le chemin du fichier.
+     */
+    public String getChemin() {
+        return chemin;
+    }
+
+    /**
+     * Décode les lignes d'un niveau. Les symboles de sol {@code -} et {@code _} sont
+     * remplacés par des espaces, et les lignes sont complétées par des espaces
+     * pour former un rectangle, comme l'attend {@link Carte}.
+     *
+     * @param numero Le numéro du niveau, à partir de 0.
+     * @return Les lignes du niveau.
+     * @throws IndexOutOfBoundsException Si le numéro ne correspond à aucun niveau.
+     */
+    public List<String> getLignes(int numero) {
+        if (numero < 0 || numero >= nbNiveaux) {
+            throw new IndexOutOfBoundsException("Niveau " + numero + " absent du paquet " + chemin);
+        }
+        List<String> lignes = new ArrayList<>();
+        StringBuilder ligne = new StringBuilder();
+        int largeur = 0;
+        for (int i = debuts[numero], fin = fins[numero]; i <= fin; i++) {
+            char c = i < fin ? (char) contenu.get(i) : '\n';
+            switch (c) {
+                case '\n' -> {
+                    largeur = Math.max(largeur, ligne.length());
+                    lignes.add(ligne.toString());
+                    ligne.setLength(0);
+                }
+                case '\r' -> {
+                }
+                case '-', '_', '\t' -> ligne.append(' ');
+                default -> ligne.append(c);
+            }
+        }
+        for (int i = 0; i < lignes.size(); i++) {
+            String l = lignes.get(i);
+            if (l.length() < largeur) {
+                lignes.set(i, l + " ".repeat(largeur - l.length()));
+            }
+        }
+        return lignes;
+    }
+
+    /**
+     * Crée une carte prête à jouer pour un niveau du paquet.
+     *
+     * @param numero Le numéro du niveau, à partir de 0.
+     * @return La carte du niveau.
+     */
+    public Carte creerCarte(int numero) {
+        return new Carte(getLignes(numero));
+    }
+}
@@ -0,0 +1,141 @@
+package modele;
+
+/**
+ * La classe Rejeu rejoue une solution en notation LURD sur une carte et donne le résultat :
+ * validité de la solution, nombre de mouvements et de poussées, et cause d'un échec.
+ * <p>
+ * Chaque lettre ({@code l u r d}, en minuscule pour un déplacement et en majuscule pour une
+ * poussée) est jouée par {@link Carte#effectuerMouvement(Direction)}. Une lettre peut être
+ * précédée d'un nombre de répétitions ({@code 3r} pour {@code rrr}), et les blancs sont ignorés.
+ * Un nombre de répétitions trop grand pour un {@code int}, ou qui n'est suivi d'aucune lettre,
+ * rend la solution invalide.
+ * La solution est valide si tous les mouvements sont possibles et si la partie est terminée à la fin.
+ */
+public final class Rejeu {
+
+    /**
+     * Indique si la solution termine le niveau.
+     */
+    private final boolean valide;
+
+    /**
+     * Nombre de mouvements joués.
+     */
+    private final int nbMouvements;
+
+    /**
+     * Nombre de poussées parmi les mouvements joués.
+     */
+    private final int nbPoussees;
+
+    /**
+     * Cause de l'échec, ou null si la solution est valide.
+     */
+    private final String erreur;
+
+    /**
+     * Constructeur d'un résultat de rejeu.
+     *
+     * @param valide Indique si la solution termine le niveau.
+     * @param nbMouvements Nombre de mouvements joués.
+     * @param nbPoussees Nombre de poussées.
+     * @param erreur Cause de l'échec, ou null.
+     */
+    private Rejeu(boolean valide, int nbMouvements, int nbPoussees, String erreur) {
+        this.valide = valide;
+        this.nbMouvements = nbMouvements;
+        this.nbPoussees = nbPoussees;
+        this.erreur = erreur;
+    }
+
+    /**
+     * Rejoue une solution LURD sur une carte. La carte est modifiée par les mouvements joués.
+     *
+     * @param carte La carte, dans l'état de départ du niveau.
+     * @param solution La solution en notation LURD.
+     * @return Le résultat du rejeu.
+     */
+    public static Rejeu rejouer(Carte carte, CharSequence solution) {
+        int mouvements = 0;
+        int poussees = 0;
+        int repetitions = 0;
+        int debutRepetitions = -1;
+        for (int i = 0; i < solution.length(); i++) {
+            char c = solution.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (debutRepetitions < 0) {
+                    debutRepetitions = i;
+                }
+                if (repetitions > (Integer.MAX_VALUE - (c - '0')) / 10) {
+                    return new Rejeu(false, mouvements, poussees,
+                            "nombre de répétitions trop grand en position " + (debutRepetitions + 1));
+                }
+                repetitions = repetitions * 10 + (c - '0');
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                continue;
+            }
+            Direction direction = Direction.depuisLurd(c);
+            if (direction == null) {
+                return new Rejeu(false, mouvements, poussees, "caractère invalide '" + c + "' en position " + (i + 1));
+            }
+            for (int k = Math.max(repetitions, 1); k > 0; k--) {
+                int resultat = carte.effectuerMouvement(direction);
+                if (resultat == Carte.MOUVEMENT_BLOQUE) {
+                    return new Rejeu(false, mouvements, poussees, "mouvement bloqué en position " + (i + 1));
+                }
+                mouvements++;
+                if (resultat == Carte.MOUVEMENT_POUSSEE) {
+                    poussees++;
+                }
+            }
+            repetitions = 0;
+            debutRepetitions = -1;
+        }
+        if (debutRepetitions >= 0) {
+            return new Rejeu(false, mouvements, poussees,
+                    "nombre de répétitions sans direction en position " + (debutRepetitions + 1));
+        }
+        if (!carte.finDePartie()) {
+            return new Rejeu(false, mouvements, poussees, "niveau non terminé");
+        }
+        return new Rejeu(true, mouvements, poussees, null);
+    }
+
+    /**
+     * Indique si la solution termine le niveau.
+     *
+     * @return true si la solution est valide, false sinon.
+     */
+    public boolean estValide() {
+        return valide;
+    }
+
+    /**
+     * Retourne le nombre de mouvements joués.
+     *
+     * @return Le nombre de mouvements.
+     */
+    public int getNbMouvements() {
+        return nbMouvements;
+    }
+
+    /**
+     * Retourne le nombre de poussées parmi les mouvements joués.
+     *
+     * @return Le nombre de poussées.
+     */
+    public int getNbPoussees() {
+        return nbPoussees;
+    }
+
+    /**
+     * Retourne la cause de l'échec.
+     *
+     * @return La cause, ou null si la solution est valide.
+     */
+    public String getErreur() {
+        return erreur;
+    }
+}
@@ -0,0 +1,279 @@
+package modele.solveur;
+
+import modele.DetectionDesImpasses;
+
+/**
+ * La classe Expansion calcule les successeurs d'un état du solveur : toutes les poussées
+ * qu'un robot peut effectuer depuis sa zone accessible, hors poussées vers un mur,
+ * une autre caisse ou une case morte, et hors poussées qui bloquent une caisse
+ * selon {@link DetectionDesImpasses}. Chaque successeur est normalisé (caisses triées,
+ * robot ramené à la plus petite case accessible) et évalué par l'heuristique.
+ * Les successeurs sont écrits dans des tableaux réutilisés d'un appel à l'autre ;
+ * une instance ne doit être utilisée que par un seul thread à la fois.
+ */
+class Expansion {
+
+    /**
+     * Le plateau en cours de résolution.
+     */
+    private final Plateau plateau;
+
+    /**
+     * Tableaux de parcours propres à cette expansion.
+     */
+    private final Parcours parcours;
+
+    /**
+     * Heuristique évaluant les successeurs.
+     */
+    private final Heuristique heuristique;
+
+    /**
+     * Nombre de caisses d'un état.
+     */
+    private final int nbCaisses;
+
+    /**
+     * Nombre d'entiers d'un état (caisses puis robot).
+     */
+    private final int taille;
+
+    /**
+     * Décalages d'indice des quatre directions.
+     */
+    private final int[] decalages;
+
+    /**
+     * Indique si les poussées vers une case morte sont écartées.
+     * C'est le cas lorsqu'il y a autant de caisses que de destinations.
+     */
+    private final boolean elaguerCasesMortes;
+
+    /**
+     * Poussées possibles recensées, codées par {@code numeroCaisse << 2 | direction}.
+     */
+    private final int[] coups;
+
+    /**
+     * Détection des caisses bloquées, partagée avec {@link modele.Carte}.
+     */
+    private final DetectionDesImpasses impasses;
+
+    /**
+     * Successeurs calculés, rangés les uns à la suite des autres.
+     */
+    private final int[] successeurs;
+
+    /**
+     * Poussée menant à chaque successeur, codée par {@code caisse << 2 | direction}.
+     */
+    private final int[] poussees;
+
+    /**
+     * Estimation de l'heuristique pour chaque successeur.
+     */
+    private final int[] estimations;
+
+    /**
+     * Prépare une expansion pour un plateau.
+     *
+     * @param plateau Le plateau à résoudre.
+     * @param heuristique L'heuristique, déjà initialisée pour ce plateau.
+     */
+    Expansion(Plateau plateau, Heuristique heuristique) {
+        this.plateau = plateau;
+        this.parcours = new Parcours(plateau);
+        this.heuristique = heuristique;
+        this.nbCaisses = plateau.getCaissesInitiales().length;
+        this.taille = nbCaisses + 1;
+        this.decalages = plateau.getDecalages();
+        this.elaguerCasesMortes = nbCaisses == plateau.getNbDestinations();
+        this.coups = new int[nbCaisses * 4];
+        this.impasses = new ImpassesDuPlateau();
+        this.successeurs = new int[nbCaisses * 4 * taille];
+        this.poussees = new int[nbCaisses * 4];
+        this.estimations = new int[nbCaisses * 4];
+    }
+
+    /**
+     * Construit l'état initial du plateau.
+     *
+     * @return L'état initial normalisé.
+     */
+    int[] etatInitial() {
+        int[] etat = new int[taille];
+        System.arraycopy(plateau.getCaissesInitiales(), 0, etat, 0, nbCaisses);
+        parcours.placerCaisses(etat, nbCaisses);
+        etat[nbCaisses] = parcours.marquerAccessibles(plateau.getRobotInitial());
+        return etat;
+    }
+
+    /**
+     * Calcule les successeurs d'un état. Ceux que l'heuristique juge insolubles sont écartés.
+     *
+     * @param etat L'état à développer.
+     * @return Le nombre de successeurs écrits dans {@link #getSuccesseurs()}.
+     */
+    int developper(int[] etat) {
+        // Recensement des poussées possibles depuis la zone accessible au robot.
+        parcours.placerCaisses(etat, nbCaisses);
+        parcours.marquerAccessibles(etat[nbCaisses]);
+        int nbCoups = 0;
+        for (int i = 0; i < nbCaisses; i++) {
+            int caisse = etat[i];
+            for (int d = 0; d < decalages.length; d++) {
+                int arrivee = caisse + decalages[d];
+                if (parcours.estAccessible(caisse - decalages[d])
+                        && !plateau.estMur(arrivee) && !parcours.estCaisse(arrivee)
+                        && !(elaguerCasesMortes && plateau.estCaseMorte(arrivee))) {
+                    coups[nbCoups++] = i << 2 | d;
+                }
+            }
+        }
+
+        int nbSuccesseurs = 0;
+        for (int c = 0; c < nbCoups; c++) {
+            int i = coups[c] >>> 2;
+            int d = coups[c] & 3;
+            int caisse = etat[i];
+            int arrivee = caisse + decalages[d];
+            int debut = nbSuccesseurs * taille;
+
+            System.arraycopy(etat, 0, successeurs, debut, nbCaisses);
+            remplacerCaisse(successeurs, debut, nbCaisses, i, arrivee);
+            parcours.deplacerCaisse(caisse, arrivee);
+            boolean bloquee = elaguerCasesMortes && impasses.estBloquee(arrivee);
+            if (!bloquee) {
+                successeurs[debut + nbCaisses] = parcours.marquerAccessibles(caisse);
+            }
+            parcours.deplacerCaisse(arrivee, caisse);
+            if (bloquee) {
+                continue;
+            }
+
+            int h = heuristique.estimer(successeurs, debut, nbCaisses);
+            if (h != Plateau.INACCESSIBLE) {
+                poussees[nbSuccesseurs] = caisse << 2 | d;
+                estimations[nbSuccesseurs] = h;
+                nbSuccesseurs++;
+            }
+        }
+        return nbSuccesseurs;
+    }
+
+    /**
+     * Remplace une caisse d'un état par sa nouvelle position en gardant les caisses triées.
+     *
+     * @param caisses Le tableau contenant l'état.
+     * @param debut La position de l'état dans le tableau.
+     * @param nbCaisses Le nombre de caisses.
+     * @param i Le numéro de la caisse déplacée.
+     * @param arrivee La nouvelle case de la caisse.
+     */
+    private static void remplacerCaisse(int[] caisses, int debut, int nbCaisses, int i, int arrivee) {
+        while (i > 0 && caisses[debut + i - 1] > arrivee) {
+            caisses[debut + i] = caisses[debut + i - 1];
+            i--;
+        }
+        while (i < nbCaisses - 1 && caisses[debut + i + 1] < arrivee) {
+            caisses[debut + i] = caisses[debut + i + 1];
+            i++;
+        }
+        caisses[debut + i] = arrivee;
+    }
+
+    /**
+     * Indique si toutes les destinations d'un état sont couvertes par une caisse.
+     *
+     * @param etat L'état à tester.
+     * @return true si l'état est résolu, false sinon.
+     */
+    boolean estResolu(int[] etat) {
+        int placees = 0;
+        for (int i = 0; i < nbCaisses; i++) {
+            if (plateau.estDestination(etat[i])) {
+                placees++;
+            }
+        }
+        return placees == plateau.getNbDestinations();
+    }
+
+    /**
+     * Retourne les successeurs calculés par le dernier appel à {@link #developper(int[])}.
+     *
+     * @return Les successeurs rangés les uns à la suite des autres.
+     */
+    int[] getSuccesseurs() {
+        return successeurs;
+    }
+
+    /**
+     * Retourne les poussées menant aux successeurs.
+     *
+     * @return Les poussées, codées par {@code caisse << 2 | direction}.
+     */
+    int[] getPoussees() {
+        return poussees;
+    }
+
+    /**
+     * Retourne les estimations de l'heuristique pour les successeurs.
+     *
+     * @return Les estimations.
+     */
+    int[] getEstimations() {
+        return estimations;
+    }
+
+    /**
+     * Retourne le nombre d'entiers occupés par un état.
+     *
+     * @return La taille d'un état.
+     */
+    int getTaille() {
+        return taille;
+    }
+
+    /**
+     * Retourne les tableaux de parcours de cette expansion.
+     *
+     * @return Le parcours.
+     */
+    Parcours getParcours() {
+        return parcours;
+    }
+
+    /**
+     * Détection des impasses sur le plateau, dont la bordure de murs correspond
+     * à la numérotation attendue, et sur les caisses placées dans le parcours.
+     */
+    private final class ImpassesDuPlateau extends DetectionDesImpasses {
+
+        /**
+         * Constructeur de la détection pour l'expansion englobante.
+         */
+        private ImpassesDuPlateau() {
+            super(plateau.getLargeur(), nbCaisses);
+        }
+
+        @Override
+        protected boolean estMur(int indice) {
+            return plateau.estMur(indice);
+        }
+
+        @Override
+        protected boolean estDestination(int indice) {
+            return plateau.estDestination(indice);
+        }
+
+        @Override
+        protected boolean estCaseMorte(int indice) {
+            return plateau.estCaseMorte(indice);
+        }
+
+        @Override
+        protected boolean estCaisse(int indice) {
+            return parcours.estCaisse(indice);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package modele.solveur;
+
+import java.util.Arrays;
+
+/**
+ * La classe FileDePriorite est une file à seaux pour des priorités entières positives.
+ * Chaque seau est une pile d'entiers : les éléments de même priorité sont retirés
+ * du plus récent au plus ancien, ce qui favorise les nœuds les plus profonds.
+ */
+class FileDePriorite {
+
+    /**
+     * Seaux d'éléments, indexés par priorité.
+     */
+    private int[][] seaux;
+
+    /**
+     * Nombre d'éléments de chaque seau.
+     */
+    private int[] tailles;
+
+    /**
+     * Plus petite priorité pouvant contenir un élément.
+     */
+    private int minimum;
+
+    /**
+     * Nombre total d'éléments dans la file.
+     */
+    private int taille;
+
+    /**
+     * Construit une file vide.
+     */
+    FileDePriorite() {
+        seaux = new int[64][];
+        tailles = new int[64];
+    }
+
+    /**
+     * Ajoute un élément à la file.
+     *
+     * @param element L'élément à ajouter.
+     * @param priorite Sa priorité (les plus petites sortent en premier).
+     */
+    void ajouter(int element, int priorite) {
+        if (priorite >= seaux.length) {
+            int capacite = Math.max(priorite + 1, seaux.length * 2);
+            seaux = Arrays.copyOf(seaux, capacite);
+            tailles = Arrays.copyOf(tailles, capacite);
+        }
+        int[] seau = seaux[priorite];
+        if (seau == null) {
+            seau = new int[16];
+            seaux[priorite] = seau;
+        } else if (tailles[priorite] == seau.length) {
+            seau = Arrays.copyOf(seau, seau.length * 2);
+            seaux[priorite] = seau;
+        }
+        seau[tailles[priorite]++] = element;
+        if (priorite < minimum) {
+            minimum = priorite;
+        }
+        taille++;
+    }
+
+    /**
+     * Retire l'élément de plus petite priorité.
+     *
+     * @return L'élément retiré, ou -1 si la file est vide.
+     */
+    int retirer() {
+        if (taille == 0) {
+            return -1;
+        }
+        while (tailles[minimum] == 0) {
+            minimum++;
+        }
+        taille--;
+        return seaux[minimum][--tailles[minimum]];
+    }
+
+    /**
+     * Indique si la file est vide.
+     *
+     * @return true si la file ne contient aucun élément, false sinon.
+     */
+    boolean estVide() {
+        return taille == 0;
+    }
+
+    /**
+     * Retourne le nombre d'éléments dans la file.
+     *
+     * @return La taille de la file.
+     */
+    int getTaille() {
+        return taille;
+    }
+
+    /**
+     * Retourne la mémoire occupée par les tableaux de la file.
+     *
+     * @return Le nombre d'octets alloués, références comprises.
+     */
+    long getOctets() {
+        long octets = 4L * tailles.length + 8L * seaux.length;
+        for (int[] seau : seaux) {
+            if (seau != null) {
+                octets += 4L * seau.length;
+            }
+        }
+        return octets;
+    }
+}
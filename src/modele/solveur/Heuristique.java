@@ -0,0 +1,28 @@
+package modele.solveur;
+
+/**
+ * L'interface Heuristique permet de brancher une estimation du nombre de poussées
+ * restantes dans le solveur. Une heuristique qui ne surestime jamais ce nombre
+ * garantit une solution optimale en poussées.
+ * Après {@link #initialiser(Plateau)}, {@link #estimer(int[], int, int)} doit pouvoir
+ * être appelée par plusieurs threads à la fois.
+ */
+public interface Heuristique {
+
+    /**
+     * Prépare l'heuristique pour un plateau, avant le début de la recherche.
+     *
+     * @param plateau Le plateau à résoudre.
+     */
+    void initialiser(Plateau plateau);
+
+    /**
+     * Estime le nombre de poussées restantes pour un état.
+     *
+     * @param caisses Tableau contenant les indices des caisses.
+     * @param debut Position de la première caisse dans le tableau.
+     * @param nbCaisses Nombre de caisses à lire dans le tableau.
+     * @return L'estimation, ou {@link Plateau#INACCESSIBLE} si l'état ne peut plus être résolu.
+     */
+    int estimer(int[] caisses, int debut, int nbCaisses);
+}
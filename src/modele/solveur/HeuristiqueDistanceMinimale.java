@@ -0,0 +1,55 @@
+package modele.solveur;
+
+import java.util.Arrays;
+
+/**
+ * La classe HeuristiqueDistanceMinimale estime le nombre de poussées restantes
+ * par la somme, pour chaque caisse, du nombre minimal de poussées qui la sépare
+ * de la destination la plus proche (sans tenir compte des autres caisses).
+ * Elle ne surestime jamais et détecte les caisses placées sur une case morte.
+ */
+public class HeuristiqueDistanceMinimale implements Heuristique {
+
+    /**
+     * Le plateau en cours de résolution.
+     */
+    private Plateau plateau;
+
+    @Override
+    public void initialiser(Plateau plateau) {
+        this.plateau = plateau;
+    }
+
+    @Override
+    public int estimer(int[] caisses, int debut, int nbCaisses) {
+        int nbDestinations = plateau.getNbDestinations();
+        if (nbCaisses == nbDestinations) {
+            int somme = 0;
+            for (int i = 0; i < nbCaisses; i++) {
+                int distance = plateau.getDistancePoussees(caisses[debut + i]);
+                if (distance == Plateau.INACCESSIBLE) {
+                    return Plateau.INACCESSIBLE;
+                }
+                somme += distance;
+            }
+            return somme;
+        }
+        if (nbCaisses < nbDestinations) {
+            return Plateau.INACCESSIBLE;
+        }
+        // Caisses en surnombre : seules les plus proches ont besoin d'atteindre une destination.
+        int[] distances = new int[nbCaisses];
+        for (int i = 0; i < nbCaisses; i++) {
+            distances[i] = plateau.getDistancePoussees(caisses[debut + i]);
+        }
+        Arrays.sort(distances);
+        int somme = 0;
+        for (int i = 0; i < nbDestinations; i++) {
+            if (distances[i] == Plateau.INACCESSIBLE) {
+                return Plateau.INACCESSIBLE;
+            }
+            somme += distances[i];
+        }
+        return somme;
+    }
+}
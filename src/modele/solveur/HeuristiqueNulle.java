@@ -0,0 +1,17 @@
+package modele.solveur;
+
+/**
+ * La classe HeuristiqueNulle estime toujours zéro poussée restante.
+ * Le solveur se comporte alors comme un parcours en largeur sur les poussées.
+ */
+public class HeuristiqueNulle implements Heuristique {
+
+    @Override
+    public void initialiser(Plateau plateau) {
+    }
+
+    @Override
+    public int estimer(int[] caisses, int debut, int nbCaisses) {
+        return 0;
+    }
+}
@@ -0,0 +1,61 @@
+package modele.solveur;
+
+/**
+ * La classe MesureMemoire suit la mémoire occupée par les structures d'une recherche
+ * (table des états, file de priorité, tableaux des parents) et en retient le maximum observé.
+ * Elle signale quand cette mémoire dépasse le budget de la recherche, pour l'arrêter
+ * avant un manque de mémoire.
+ * <p>
+ * Seules les structures de la recherche sont comptées, et non le tas entier : plusieurs
+ * recherches peuvent tourner en même temps dans le programme sans qu'une recherche
+ * soit arrêtée à cause de la mémoire allouée par les autres.
+ */
+class MesureMemoire {
+
+    /**
+     * Fraction de la taille maximale du tas accordée par défaut à une recherche.
+     */
+    private static final double SEUIL = 0.8;
+
+    /**
+     * Budget de la recherche en octets, 0 pour aucune limite.
+     */
+    private final long limite;
+
+    /**
+     * Mémoire maximale observée, en octets.
+     */
+    private long maximum;
+
+    /**
+     * Constructeur d'une mesure.
+     *
+     * @param limite Le budget de la recherche en octets, 0 pour aucune limite,
+     *               ou -1 pour une fraction de la taille maximale du tas.
+     */
+    MesureMemoire(long limite) {
+        this.limite = limite < 0 ? (long) (SEUIL * Runtime.getRuntime().maxMemory()) : limite;
+    }
+
+    /**
+     * Relève la mémoire occupée par les structures de la recherche.
+     *
+     * @param octets La mémoire occupée, en octets.
+     * @return true si le budget de la recherche est dépassé.
+     */
+    boolean echantillonner(long octets) {
+        if (octets > maximum) {
+            maximum = octets;
+        }
+        return limite > 0 && octets > limite;
+    }
+
+    /**
+     * Retourne la mémoire maximale observée.
+     *
+     * @return La mémoire en octets.
+     */
+    long getMaximum() {
+        return maximum;
+    }
+}
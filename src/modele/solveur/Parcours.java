@@ -0,0 +1,277 @@
+package modele.solveur;
+
+import java.util.List;
+import modele.Direction;
+
+/**
+ * La classe Parcours regroupe les parcours en largeur du robot sur un plateau.
+ * Elle possède ses propres tableaux de travail (caisses placées, file et marques de visite),
+ * réutilisés d'un parcours à l'autre grâce à un numéro de génération :
+ * un parcours n'alloue donc rien et ne remet aucun tableau à zéro.
+ * Une instance ne doit être utilisée que par un seul thread à la fois.
+ */
+class Parcours {
+
+    /**
+     * Le plateau parcouru.
+     */
+    private final Plateau plateau;
+
+    /**
+     * Cases infranchissables du plateau.
+     */
+    private final boolean[] murs;
+
+    /**
+     * Décalages d'indice des quatre directions.
+     */
+    private final int[] decalages;
+
+    /**
+     * File réutilisée par les parcours.
+     */
+    private final int[] file;
+
+    /**
+     * Marques de visite réutilisées par les parcours.
+     */
+    private final int[] marques;
+
+    /**
+     * Génération courante des marques de visite, incrémentée à chaque parcours.
+     */
+    private int generation;
+
+    /**
+     * File du parcours partant de la seconde case dans {@link #sontRelies(int, int)}.
+     */
+    private int[] fileOpposee;
+
+    /**
+     * Marques de visite du parcours partant de la seconde case dans {@link #sontRelies(int, int)}.
+     */
+    private int[] marquesOpposees;
+
+    /**
+     * Marques des cases occupées par une caisse.
+     */
+    private final int[] caisses;
+
+    /**
+     * Génération identifiant les caisses placées dans {@link #caisses}.
+     */
+    private int generationCaisses;
+
+    /**
+     * Construit les tableaux de travail pour un plateau.
+     *
+     * @param plateau Le plateau à parcourir.
+     */
+    Parcours(Plateau plateau) {
+        this.plateau = plateau;
+        this.murs = plateau.getMurs();
+        this.decalages = plateau.getDecalages();
+        this.file = new int[plateau.getNbCases()];
+        this.marques = new int[plateau.getNbCases()];
+        this.caisses = new int[plateau.getNbCases()];
+    }
+
+    /**
+     * Retourne le plateau parcouru.
+     *
+     * @return Le plateau.
+     */
+    Plateau getPlateau() {
+        return plateau;
+    }
+
+    /**
+     * Place un ensemble de caisses, en remplaçant celles placées précédemment.
+     *
+     * @param etat Tableau contenant les indices des caisses.
+     * @param nbCaisses Nombre de caisses, lues depuis le début du tableau.
+     */
+    void placerCaisses(int[] etat, int nbCaisses) {
+        int g = ++generationCaisses;
+        for (int i = 0; i < nbCaisses; i++) {
+            caisses[etat[i]] = g;
+        }
+    }
+
+    /**
+     * Déplace une caisse déjà placée.
+     *
+     * @param depart La case quittée par la caisse.
+     * @param arrivee La nouvelle case de la caisse.
+     */
+    void deplacerCaisse(int depart, int arrivee) {
+        caisses[depart] = 0;
+        caisses[arrivee] = generationCaisses;
+    }
+
+    /**
+     * Indique si une case est occupée par l'une des caisses placées.
+     *
+     * @param indice L'indice de la case.
+     * @return true si une caisse occupe la case, false sinon.
+     */
+    boolean estCaisse(int indice) {
+        return caisses[indice] == generationCaisses;
+    }
+
+    /**
+     * Marque les cases accessibles au robot depuis une case de départ, sans pousser de caisse.
+     *
+     * @param depart La case de départ du robot.
+     * @return La plus petite case accessible, qui sert de position normalisée du robot.
+     */
+    int marquerAccessibles(int depart) {
+        int g = ++generation;
+        int debut = 0;
+        int fin = 0;
+        int minimum = depart;
+        marques[depart] = g;
+        file[fin++] = depart;
+        while (debut < fin) {
+            int courante = file[debut++];
+            if (courante < minimum) {
+                minimum = courante;
+            }
+            for (int decalage : decalages) {
+                int voisine = courante + decalage;
+                if (marques[voisine] != g && !murs[voisine] && caisses[voisine] != generationCaisses) {
+                    marques[voisine] = g;
+                    file[fin++] = voisine;
+                }
+            }
+        }
+        return minimum;
+    }
+
+    /**
+     * Cherche les côtés d'une caisse que le robot peut rejoindre sans pousser.
+     * Chaque côté libre est relié au robot par {@link #sontRelies(int, int)}, dont le coût
+     * dépend de la plus petite des deux zones : en terrain dégagé comme pour un côté enfermé,
+     * seules quelques cases sont visitées, même sur une grande carte.
+     *
+     * @param depart La case de départ du robot.
+     * @param caisse La case de la caisse, qui doit être placée.
+     * @return Le masque des directions {@code d} (bit {@code 1 << d}) pour lesquelles la case
+     *         {@code caisse - decalages[d]} est accessible.
+     */
+    int cotesAccessibles(int depart, int caisse) {
+        int atteints = 0;
+        for (int d = 0; d < decalages.length; d++) {
+            int cote = caisse - decalages[d];
+            if (!murs[cote] && caisses[cote] != generationCaisses && sontRelies(depart, cote)) {
+                atteints |= 1 << d;
+            }
+        }
+        return atteints;
+    }
+
+    /**
+     * Indique si le robot peut aller d'une case à une autre sans pousser de caisse.
+     * Deux parcours en largeur partent des deux cases et avancent chacun d'une case à tour
+     * de rôle : ils s'arrêtent dès qu'ils se rencontrent, ou dès que l'un d'eux a épuisé
+     * sa zone. Le second parcours utilise ses propres tableaux, alloués au premier besoin.
+     *
+     * @param a La première case.
+     * @param b La seconde case.
+     * @return true si les deux cases sont reliées, false sinon.
+     */
+    boolean sontRelies(int a, int b) {
+        if (a == b) {
+            return true;
+        }
+        if (fileOpposee == null) {
+            fileOpposee = new int[murs.length];
+            marquesOpposees = new int[murs.length];
+        }
+        int g = ++generation;
+        int debutA = 0;
+        int finA = 0;
+        int debutB = 0;
+        int finB = 0;
+        marques[a] = g;
+        file[finA++] = a;
+        marquesOpposees[b] = g;
+        fileOpposee[finB++] = b;
+        while (debutA < finA && debutB < finB) {
+            int courante = file[debutA++];
+            for (int decalage : decalages) {
+                int voisine = courante + decalage;
+                if (marquesOpposees[voisine] == g) {
+                    return true;
+                }
+                if (marques[voisine] != g && !murs[voisine] && caisses[voisine] != generationCaisses) {
+                    marques[voisine] = g;
+                    file[finA++] = voisine;
+                }
+            }
+            courante = fileOpposee[debutB++];
+            for (int decalage : decalages) {
+                int voisine = courante + decalage;
+                if (marques[voisine] == g) {
+                    return true;
+                }
+                if (marquesOpposees[voisine] != g && !murs[voisine] && caisses[voisine] != generationCaisses) {
+                    marquesOpposees[voisine] = g;
+                    fileOpposee[finB++] = voisine;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indique si une case a été atteinte par le dernier appel à
+     * {@link #marquerAccessibles(int)}.
+     *
+     * @param indice L'indice de la case.
+     * @return true si la case est accessible au robot, false sinon.
+     */
+    boolean estAccessible(int indice) {
+        return marques[indice] == generation;
+    }
+
+    /**
+     * Ajoute à une liste le plus court chemin de marche du robot entre deux cases,
+     * sans pousser de caisse.
+     *
+     * @param depart La case de départ.
+     * @param arrivee La case d'arrivée.
+     * @param chemin La liste à compléter.
+     * @return true si un chemin existe, false sinon.
+     */
+    boolean ajouterChemin(int depart, int arrivee, List<Direction> chemin) {
+        if (depart == arrivee) {
+            return true;
+        }
+        int g = ++generation;
+        int[] precedents = new int[murs.length];
+        int debut = 0;
+        int fin = 0;
+        marques[depart] = g;
+        file[fin++] = depart;
+        while (debut < fin && marques[arrivee] != g) {
+            int courante = file[debut++];
+            for (int d = 0; d < decalages.length; d++) {
+                int voisine = courante + decalages[d];
+                if (marques[voisine] != g && !murs[voisine] && caisses[voisine] != generationCaisses) {
+                    marques[voisine] = g;
+                    precedents[voisine] = d;
+                    file[fin++] = voisine;
+                }
+            }
+        }
+        if (marques[arrivee] != g) {
+            return false;
+        }
+        int taille = chemin.size();
+        for (int c = arrivee; c != depart; c -= decalages[precedents[c]]) {
+            chemin.add(taille, Plateau.DIRECTIONS[precedents[c]]);
+        }
+        return true;
+    }
+}
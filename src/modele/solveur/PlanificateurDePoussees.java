@@ -0,0 +1,199 @@
+package modele.solveur;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import modele.Carte;
+import modele.Direction;
+
+/**
+ * La classe PlanificateurDePoussees cherche comment amener une seule caisse jusqu'à une case
+ * choisie, les autres caisses restant immobiles, avec un nombre minimal de poussées.
+ * <p>
+ * La recherche est un parcours en largeur sur les couples (case de la caisse, côté du robot).
+ * Entre deux poussées, un parcours du robot donne tous les côtés de la caisse qu'il peut
+ * rejoindre sans pousser : ces côtés sont équivalents et ne sont développés qu'une fois.
+ * Chaque côté est cherché par deux parcours qui partent du robot et du côté à la fois,
+ * et qui s'arrêtent à leur rencontre ou dès que la plus petite des deux zones est épuisée.
+ * Le plateau est copié à la construction ; la recherche peut donc tourner sur un autre thread
+ * pendant que la carte continue d'être jouée. Elle s'arrête dès que le thread est interrompu.
+ */
+public class PlanificateurDePoussees {
+
+    /**
+     * Nombre de développements entre deux vérifications de l'interruption.
+     */
+    private static final int PERIODE_VERIFICATION = 256;
+
+    /**
+     * Valeur de {@link #parents} pour un état jamais atteint.
+     */
+    private static final int NON_ATTEINT = -1;
+
+    /**
+     * Valeur de {@link #parents} pour un état atteint par la première poussée.
+     */
+    private static final int RACINE = -2;
+
+    /**
+     * Plateau copié depuis la carte.
+     */
+    private final Plateau plateau;
+
+    /**
+     * Parcours du robot sur le plateau.
+     */
+    private final Parcours parcours;
+
+    /**
+     * Décalages d'indice des quatre directions.
+     */
+    private final int[] decalages;
+
+    /**
+     * Pour chaque état {@code caisse << 2 | direction} (caisse qui vient d'être poussée dans
+     * cette direction), état précédent, {@link #RACINE} ou {@link #NON_ATTEINT}.
+     */
+    private int[] parents;
+
+    /**
+     * États dont le côté du robot a déjà été rejoint par le développement d'un état équivalent.
+     */
+    private boolean[] couverts;
+
+    /**
+     * File des états à développer.
+     */
+    private int[] file;
+
+    /**
+     * Nombre d'états dans la file.
+     */
+    private int fin;
+
+    /**
+     * Case actuellement occupée par la caisse déplacée dans le parcours du robot.
+     */
+    private int caisseDansParcours;
+
+    /**
+     * Copie l'état courant d'une carte. La carte n'est plus lue ensuite.
+     *
+     * @param carte La carte dont une caisse doit être déplacée.
+     */
+    public PlanificateurDePoussees(Carte carte) {
+        plateau = new Plateau(carte);
+        parcours = new Parcours(plateau);
+        decalages = plateau.getDecalages();
+    }
+
+    /**
+     * Cherche la suite de mouvements qui amène une caisse jusqu'à une case avec le moins
+     * de poussées possible, sans déplacer les autres caisses.
+     *
+     * @param xCaisse Coordonnée X de la caisse sur la carte.
+     * @param yCaisse Coordonnée Y de la caisse sur la carte.
+     * @param xCible Coordonnée X de la case visée.
+     * @param yCible Coordonnée Y de la case visée.
+     * @return La suite des mouvements du robot, marches et poussées comprises (vide si la caisse
+     *         est déjà sur la case visée), ou null si c'est impossible ou si le thread a été interrompu.
+     */
+    public List<Direction> planifier(int xCaisse, int yCaisse, int xCible, int yCible) {
+        int largeur = plateau.getLargeur();
+        int hauteur = plateau.getNbCases() / largeur;
+        if (xCaisse < 0 || yCaisse < 0 || xCaisse >= largeur - 2 || yCaisse >= hauteur - 2
+                || xCible < 0 || yCible < 0 || xCible >= largeur - 2 || yCible >= hauteur - 2
+                || plateau.getRobotInitial() < 0) {
+            return null;
+        }
+        int[] caisses = plateau.getCaissesInitiales();
+        parcours.placerCaisses(caisses, caisses.length);
+        int depart = plateau.indice(xCaisse, yCaisse);
+        int cible = plateau.indice(xCible, yCible);
+        if (!parcours.estCaisse(depart)) {
+            return null;
+        }
+        if (depart == cible) {
+            return new ArrayList<>();
+        }
+        if (plateau.estMur(cible) || parcours.estCaisse(cible)) {
+            return null;
+        }
+
+        int nbEtats = plateau.getNbCases() * 4;
+        parents = new int[nbEtats];
+        Arrays.fill(parents, NON_ATTEINT);
+        couverts = new boolean[nbEtats];
+        file = new int[nbEtats];
+        fin = 0;
+        caisseDansParcours = depart;
+
+        int trouve = developper(depart, plateau.getRobotInitial(), RACINE, cible);
+        for (int debut = 0; trouve < 0 && debut < fin; debut++) {
+            if (debut % PERIODE_VERIFICATION == 0 && Thread.currentThread().isInterrupted()) {
+                return null;
+            }
+            int etat = file[debut];
+            if (couverts[etat]) {
+                continue;
+            }
+            int caisse = etat >>> 2;
+            trouve = developper(caisse, caisse - decalages[etat & 3], etat, cible);
+        }
+        return trouve < 0 ? null : reconstruire(trouve);
+    }
+
+    /**
+     * Développe une position de la caisse : marque les côtés que le robot peut rejoindre,
+     * puis ajoute à la file chaque poussée possible depuis ces côtés.
+     *
+     * @param caisse La case de la caisse.
+     * @param robot La case du robot.
+     * @param etat L'état développé, ou {@link #RACINE}.
+     * @param cible La case visée.
+     * @return L'état où la caisse atteint la case visée, ou -1 s'il n'a pas été trouvé.
+     */
+    private int developper(int caisse, int robot, int etat, int cible) {
+        parcours.deplacerCaisse(caisseDansParcours, caisse);
+        caisseDansParcours = caisse;
+        int cotes = parcours.cotesAccessibles(robot, caisse);
+        for (int d = 0; d < decalages.length; d++) {
+            if ((cotes & 1 << d) == 0) {
+                continue;
+            }
+            // Arriver par ce côté équivaut à l'état développé : inutile de le développer à nouveau.
+            couverts[caisse << 2 | d] = true;
+            int arrivee = caisse + decalages[d];
+            int suivant = arrivee << 2 | d;
+            if (plateau.estMur(arrivee) || parcours.estCaisse(arrivee)
+                    || parents[suivant] != NON_ATTEINT || couverts[suivant]) {
+                continue;
+            }
+            parents[suivant] = etat;
+            if (arrivee == cible) {
+                return suivant;
+            }
+            file[fin++] = suivant;
+        }
+        return -1;
+    }
+
+    /**
+     * Reconstruit la suite complète des mouvements menant à un état.
+     *
+     * @param etat L'état où la caisse a atteint la case visée.
+     * @return La suite des mouvements du robot.
+     */
+    private List<Direction> reconstruire(int etat) {
+        int nbPoussees = 0;
+        for (int e = etat; e != RACINE; e = parents[e]) {
+            nbPoussees++;
+        }
+        int[] suite = new int[nbPoussees];
+        for (int e = etat, k = nbPoussees - 1; e != RACINE; e = parents[e], k--) {
+            int d = e & 3;
+            suite[k] = ((e >>> 2) - decalages[d]) << 2 | d;
+        }
+        return Solveur.rejouer(plateau, parcours, suite, nbPoussees);
+    }
+}
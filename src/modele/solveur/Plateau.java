@@ -0,0 +1,235 @@
+package modele.solveur;
+
+import java.util.Arrays;
+import modele.Carte;
+import modele.Direction;
+import modele.Niveau;
+
+/**
+ * La classe Plateau est une vue statique et compacte d'une carte, utilisée par le solveur.
+ * La grille est entourée d'une bordure de murs, ce qui permet de se déplacer
+ * par simple addition d'un décalage sur l'indice d'une case sans tester les bords.
+ * Elle reprend aussi du {@link Niveau}, pour chaque case, le nombre minimal de poussées
+ * nécessaires pour amener une caisse de cette case jusqu'à une destination.
+ * Un plateau n'est jamais modifié après sa construction et peut être partagé entre threads.
+ */
+public class Plateau {
+
+    /**
+     * Distance attribuée aux cases depuis lesquelles aucune caisse ne peut atteindre une destination.
+     */
+    public static final int INACCESSIBLE = Niveau.INACCESSIBLE;
+
+    /**
+     * Ensemble des directions, dans l'ordre de leurs décalages.
+     */
+    static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * Largeur de la grille, bordure comprise.
+     */
+    private final int largeur;
+
+    /**
+     * Indique pour chaque case si elle est infranchissable (mur ou bordure).
+     */
+    private final boolean[] murs;
+
+    /**
+     * Indique pour chaque case si elle est une destination.
+     */
+    private final boolean[] destinations;
+
+    /**
+     * Décalage d'indice associé à chaque direction.
+     */
+    private final int[] decalages;
+
+    /**
+     * Nombre minimal de poussées pour amener une caisse de chaque case à une destination.
+     */
+    private final int[] distancesPoussees;
+
+    /**
+     * Positions initiales des caisses, triées par indice croissant.
+     */
+    private final int[] caissesInitiales;
+
+    /**
+     * Position initiale du robot, ou -1 s'il n'y a pas de robot.
+     */
+    private final int robotInitial;
+
+    /**
+     * Nombre de destinations de la carte.
+     */
+    private final int nbDestinations;
+
+    /**
+     * Construit le plateau correspondant à l'état courant d'une carte.
+     *
+     * @param carte La carte à analyser.
+     */
+    public Plateau(Carte carte) {
+        largeur = carte.getLargeur() + 2;
+        int hauteur = carte.getHauteur() + 2;
+        int nbCases = largeur * hauteur;
+
+        murs = new boolean[nbCases];
+        destinations = new boolean[nbCases];
+        decalages = new int[DIRECTIONS.length];
+        for (Direction d : DIRECTIONS) {
+            decalages[d.ordinal()] = d.getDy() * largeur + d.getDx();
+        }
+
+        Niveau niveau = carte.getNiveau();
+        distancesPoussees = new int[nbCases];
+        int nbCaisses = 0;
+        int nbDest = 0;
+        int[] caisses = new int[nbCases];
+        for (int y = 0; y < hauteur; y++) {
+            for (int x = 0; x < largeur; x++) {
+                int indice = y * largeur + x;
+                byte terrain = carte.getTerrain(x - 1, y - 1);
+                boolean bordure = x == 0 || y == 0 || x == largeur - 1 || y == hauteur - 1;
+                murs[indice] = bordure || terrain == Carte.TERRAIN_MUR;
+                distancesPoussees[indice] = niveau.getDistancePoussees(x - 1, y - 1);
+                if (!bordure && terrain == Carte.TERRAIN_DESTINATION) {
+                    destinations[indice] = true;
+                    nbDest++;
+                }
+                if (!bordure && carte.estCaisse(x - 1, y - 1)) {
+                    caisses[nbCaisses++] = indice;
+                }
+            }
+        }
+        caissesInitiales = Arrays.copyOf(caisses, nbCaisses);
+        nbDestinations = nbDest;
+        robotInitial = carte.getRobot() == null ? -1
+                : indice(carte.getRobot().getX(), carte.getRobot().getY());
+    }
+
+    /**
+     * Convertit des coordonnées de la carte en indice de case du plateau.
+     *
+     * @param x Coordonnée X sur la carte.
+     * @param y Coordonnée Y sur la carte.
+     * @return L'indice de la case sur le plateau.
+     */
+    public int indice(int x, int y) {
+        return (y + 1) * largeur + (x + 1);
+    }
+
+    /**
+     * Retourne le nombre total de cases du plateau, bordure comprise.
+     *
+     * @return Le nombre de cases.
+     */
+    public int getNbCases() {
+        return murs.length;
+    }
+
+    /**
+     * Retourne la largeur du plateau, bordure comprise.
+     *
+     * @return La largeur.
+     */
+    public int getLargeur() {
+        return largeur;
+    }
+
+    /**
+     * Indique si une case est infranchissable.
+     *
+     * @param indice L'indice de la case.
+     * @return true si la case est un mur ou la bordure, false sinon.
+     */
+    public boolean estMur(int indice) {
+        return murs[indice];
+    }
+
+    /**
+     * Indique si une case est une destination.
+     *
+     * @param indice L'indice de la case.
+     * @return true si la case est une destination, false sinon.
+     */
+    public boolean estDestination(int indice) {
+        return destinations[indice];
+    }
+
+    /**
+     * Indique si une caisse placée sur cette case ne pourra jamais atteindre une destination.
+     *
+     * @param indice L'indice de la case.
+     * @return true si la case est morte, false sinon.
+     */
+    public boolean estCaseMorte(int indice) {
+        return distancesPoussees[indice] == INACCESSIBLE;
+    }
+
+    /**
+     * Retourne le nombre minimal de poussées pour amener une caisse de cette case à une destination.
+     *
+     * @param indice L'indice de la case.
+     * @return La distance en poussées, ou {@link #INACCESSIBLE}.
+     */
+    public int getDistancePoussees(int indice) {
+        return distancesPoussees[indice];
+    }
+
+    /**
+     * Retourne le décalage d'indice correspondant à une direction.
+     *
+     * @param direction La direction.
+     * @return Le décalage à ajouter à un indice de case.
+     */
+    public int getDecalage(Direction direction) {
+        return decalages[direction.ordinal()];
+    }
+
+    /**
+     * Retourne une copie des positions initiales des caisses, triées par indice.
+     *
+     * @return Les indices des caisses.
+     */
+    public int[] getCaissesInitiales() {
+        return caissesInitiales.clone();
+    }
+
+    /**
+     * Retourne la position initiale du robot.
+     *
+     * @return L'indice de la case du robot, ou -1 s'il n'y a pas de robot.
+     */
+    public int getRobotInitial() {
+        return robotInitial;
+    }
+
+    /**
+     * Retourne le nombre de destinations.
+     *
+     * @return Le nombre de destinations.
+     */
+    public int getNbDestinations() {
+        return nbDestinations;
+    }
+
+    /**
+     * Retourne le tableau interne des murs, sans copie, pour les parcours du paquetage.
+     *
+     * @return Le tableau des murs, à ne pas modifier.
+     */
+    boolean[] getMurs() {
+        return murs;
+    }
+
+    /**
+     * Retourne le tableau interne des décalages, sans copie, pour les parcours du paquetage.
+     *
+     * @return Les décalages indexés par ordinal de direction, à ne pas modifier.
+     */
+    int[] getDecalages() {
+        return decalages;
+    }
+}
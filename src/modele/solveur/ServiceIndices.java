@@ -0,0 +1,226 @@
+package modele.solveur;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import modele.Carte;
+import modele.Direction;
+import modele.Niveau;
+import modele.Robot;
+
+/**
+ * La classe ServiceIndices cherche en arrière-plan le prochain mouvement conseillé
+ * depuis la position du joueur, pour pouvoir le donner immédiatement quand il le demande.
+ * <p>
+ * À chaque changement de position signalé par {@link #positionChangee(Carte)}, la recherche
+ * précédente est abandonnée et une recherche limitée dans le temps est lancée sur une copie
+ * de la carte. Quand une solution est trouvée, le mouvement conseillé est mémorisé pour
+ * chaque position de cette solution : tant que le joueur la suit, les indices suivants sont
+ * déjà connus. Les résultats sont indexés par le hachage de Zobrist de l'état et la case
+ * du robot, et oubliés quand le joueur change de niveau.
+ * <p>
+ * Les méthodes publiques ne bloquent jamais : elles sont appelées depuis la boucle
+ * de saisie ou l'EDT.
+ */
+public class ServiceIndices {
+
+    /**
+     * Nombre maximal de positions mémorisées.
+     */
+    private static final int CAPACITE_CACHE = 1 << 16;
+
+    /**
+     * Valeur mémorisée pour une position sans solution.
+     */
+    private static final int SANS_SOLUTION = -1;
+
+    /**
+     * Valeur mémorisée pour une position dont la recherche a atteint sa limite de temps.
+     */
+    private static final int LIMITE_ATTEINTE = -2;
+
+    /**
+     * Durée maximale d'une recherche en millisecondes.
+     */
+    private final long limiteTemps;
+
+    /**
+     * Résultat de chaque position déjà cherchée : l'ordinal de la direction conseillée,
+     * {@link #SANS_SOLUTION} ou {@link #LIMITE_ATTEINTE}. Les positions les moins
+     * récemment utilisées sont oubliées au-delà de {@link #CAPACITE_CACHE}.
+     */
+    private final Map<Long, Integer> resultats = new LinkedHashMap<>(1 << 10, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Integer> plusAncien) {
+            return size() > CAPACITE_CACHE;
+        }
+    };
+
+    /**
+     * Thread des recherches. Java 17 n'a pas de threads virtuels : un unique thread démon
+     * classique suffit, puisqu'une seule recherche utile est en cours à la fois.
+     */
+    private final ExecutorService executeur = Executors.newSingleThreadExecutor(tache -> {
+        Thread thread = new Thread(tache, "indices");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Niveau auquel correspondent les résultats mémorisés.
+     */
+    private Niveau niveau;
+
+    /**
+     * Recherche en cours ou dernière recherche lancée, ou null.
+     */
+    private Future<?> recherche;
+
+    /**
+     * Constructeur d'un service d'indices.
+     *
+     * @param limiteTemps Durée maximale d'une recherche en millisecondes.
+     */
+    public ServiceIndices(long limiteTemps) {
+        this.limiteTemps = limiteTemps;
+    }
+
+    /**
+     * Signale que la position de la carte a changé : abandonne la recherche en cours et,
+     * si la nouvelle position n'est pas déjà connue, en lance une nouvelle sur une copie de la carte.
+     *
+     * @param carte La carte dans sa nouvelle position.
+     */
+    public synchronized void positionChangee(Carte carte) {
+        if (carte.getNiveau() != niveau) {
+            niveau = carte.getNiveau();
+            resultats.clear();
+        }
+        if (recherche != null) {
+            recherche.cancel(true);
+            recherche = null;
+        }
+        if (carte.getRobot() == null || carte.finDePartie()) {
+            return;
+        }
+        long cle = cle(carte);
+        if (resultats.containsKey(cle)) {
+            return;
+        }
+        if (carte.estEnImpasse()) {
+            resultats.put(cle, SANS_SOLUTION);
+            return;
+        }
+        Carte copie = carte.copier();
+        Niveau niveauCherche = niveau;
+        recherche = executeur.submit(() -> chercher(copie, cle, niveauCherche));
+    }
+
+    /**
+     * Retourne le mouvement conseillé depuis la position de la carte, s'il est déjà connu.
+     *
+     * @param carte La carte.
+     * @return La direction du prochain mouvement, ou null si elle n'est pas (encore) connue.
+     */
+    public synchronized Direction getIndice(Carte carte) {
+        Integer resultat = lire(carte);
+        return resultat != null && resultat >= 0 ? Direction.values()[resultat] : null;
+    }
+
+    /**
+     * Retourne l'issue de la recherche pour la position de la carte.
+     *
+     * @param carte La carte.
+     * @return {@link StatutRecherche#RESOLU} si un indice est disponible,
+     *         {@link StatutRecherche#INSOLUBLE} si la position n'a pas de solution,
+     *         {@link StatutRecherche#LIMITE_ATTEINTE} si la recherche n'a pas abouti à temps,
+     *         ou null si la recherche n'est pas terminée.
+     */
+    public synchronized StatutRecherche getStatut(Carte carte) {
+        Integer resultat = lire(carte);
+        if (resultat == null) {
+            return null;
+        }
+        return switch (resultat) {
+            case SANS_SOLUTION -> StatutRecherche.INSOLUBLE;
+            case LIMITE_ATTEINTE -> StatutRecherche.LIMITE_ATTEINTE;
+            default -> StatutRecherche.RESOLU;
+        };
+    }
+
+    /**
+     * Abandonne la recherche en cours et arrête le thread des recherches.
+     */
+    public synchronized void arreter() {
+        if (recherche != null) {
+            recherche.cancel(true);
+            recherche = null;
+        }
+        executeur.shutdownNow();
+    }
+
+    /**
+     * Lit le résultat mémorisé pour la position d'une carte.
+     *
+     * @param carte La carte.
+     * @return Le résultat, ou null s'il n'est pas connu.
+     */
+    private Integer lire(Carte carte) {
+        if (carte.getNiveau() != niveau || carte.getRobot() == null) {
+            return null;
+        }
+        return resultats.get(cle(carte));
+    }
+
+    /**
+     * Cherche une solution depuis une copie de la carte et mémorise le mouvement conseillé
+     * pour chaque position de la solution. Exécutée sur le thread des recherches.
+     *
+     * @param copie La copie de la carte, propre à cette recherche.
+     * @param cle La clé de la position de départ.
+     * @param niveauCherche Le niveau de la carte au lancement de la recherche.
+     */
+    private void chercher(Carte copie, long cle, Niveau niveauCherche) {
+        Solveur solveur = new Solveur();
+        solveur.setLimiteTemps(limiteTemps);
+        List<Direction> solution = solveur.resoudre(copie);
+        StatutRecherche statut = solveur.getStatistiques().getStatut();
+        if (statut == StatutRecherche.INTERROMPU) {
+            return;
+        }
+        // Les clés des positions de la solution sont calculées hors du verrou.
+        long[] cles = new long[solution == null ? 0 : solution.size()];
+        for (int i = 0; i < cles.length; i++) {
+            cles[i] = cle(copie);
+            copie.deplacerRobot(solution.get(i));
+        }
+        synchronized (this) {
+            if (niveau != niveauCherche) {
+                return;
+            }
+            if (solution == null) {
+                resultats.put(cle, statut == StatutRecherche.INSOLUBLE ? SANS_SOLUTION : LIMITE_ATTEINTE);
+                return;
+            }
+            for (int i = 0; i < cles.length; i++) {
+                resultats.put(cles[i], solution.get(i).ordinal());
+            }
+        }
+    }
+
+    /**
+     * Calcule la clé d'une position : le hachage de Zobrist de l'état, qui ne retient que
+     * la zone du robot, combiné avec la case exacte du robot, dont dépend le prochain mouvement.
+     *
+     * @param carte La carte.
+     * @return La clé de la position.
+     */
+    private static long cle(Carte carte) {
+        Robot robot = carte.getRobot();
+        long caseRobot = (long) robot.getY() * carte.getLargeur() + robot.getX() + 1;
+        return carte.getHashZobrist() ^ caseRobot * 0x9E3779B97F4A7C15L;
+    }
+}
@@ -0,0 +1,306 @@
+package modele.solveur;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import modele.Carte;
+import modele.Direction;
+
+/**
+ * La classe Solveur cherche une solution à une carte par l'algorithme A* sur les poussées.
+ * Un état est codé par les indices triés des caisses suivis de la plus petite case
+ * accessible au robot (position normalisée), ce qui regroupe toutes les positions
+ * du robot équivalentes entre deux poussées. Avec une heuristique qui ne surestime
+ * jamais, la solution trouvée a un nombre minimal de poussées.
+ * Les statistiques de la dernière recherche sont disponibles par {@link #getStatistiques()}.
+ */
+public class Solveur {
+
+    /**
+     * Nombre de nœuds développés entre deux vérifications des limites.
+     */
+    private static final int PERIODE_VERIFICATION = 1024;
+
+    /**
+     * Heuristique utilisée pour guider la recherche.
+     */
+    private final Heuristique heuristique;
+
+    /**
+     * Durée maximale d'une recherche en millisecondes, 0 pour aucune limite.
+     */
+    private long limiteTemps;
+
+    /**
+     * Nombre maximal de nœuds développés, 0 pour aucune limite.
+     */
+    private long limiteNoeuds;
+
+    /**
+     * Mémoire maximale des structures d'une recherche en octets, 0 pour aucune limite,
+     * -1 pour la part par défaut du tas.
+     */
+    private long limiteMemoire = -1;
+
+    /**
+     * Statistiques de la dernière recherche.
+     */
+    private StatistiquesRecherche statistiques;
+
+    /**
+     * Parent de chaque état dans l'arbre de recherche.
+     */
+    private int[] parents;
+
+    /**
+     * Poussée ayant mené à chaque état, codée par {@code caisse << 2 | direction}.
+     */
+    private int[] poussees;
+
+    /**
+     * Nombre de poussées depuis l'état initial pour chaque état.
+     */
+    private int[] couts;
+
+    /**
+     * Constructeur par défaut, utilisant l'heuristique des distances minimales.
+     */
+    public Solveur() {
+        this(new HeuristiqueDistanceMinimale());
+    }
+
+    /**
+     * Constructeur avec une heuristique donnée.
+     *
+     * @param heuristique L'heuristique guidant la recherche.
+     */
+    public Solveur(Heuristique heuristique) {
+        this.heuristique = heuristique;
+    }
+
+    /**
+     * Fixe la durée maximale d'une recherche.
+     *
+     * @param millisecondes La durée maximale, 0 pour aucune limite.
+     */
+    public void setLimiteTemps(long millisecondes) {
+        this.limiteTemps = millisecondes;
+    }
+
+    /**
+     * Fixe le nombre maximal de nœuds développés par une recherche.
+     *
+     * @param noeuds Le nombre maximal de nœuds, 0 pour aucune limite.
+     */
+    public void setLimiteNoeuds(long noeuds) {
+        this.limiteNoeuds = noeuds;
+    }
+
+    /**
+     * Fixe la mémoire maximale occupée par les structures d'une recherche. Par défaut,
+     * une recherche peut occuper la plus grande partie du tas ; un programme qui lance
+     * plusieurs recherches en même temps doit partager le tas entre elles.
+     *
+     * @param octets La mémoire maximale en octets, 0 pour aucune limite.
+     */
+    public void setLimiteMemoire(long octets) {
+        this.limiteMemoire = octets;
+    }
+
+    /**
+     * Retourne les statistiques de la dernière recherche.
+     *
+     * @return Les statistiques, ou null si aucune recherche n'a été lancée.
+     */
+    public StatistiquesRecherche getStatistiques() {
+        return statistiques;
+    }
+
+    /**
+     * Cherche une solution depuis l'état courant d'une carte. La carte n'est pas modifiée.
+     *
+     * @param carte La carte à résoudre.
+     * @return La suite de mouvements du robot, ou null si aucune solution n'a été trouvée.
+     */
+    public List<Direction> resoudre(Carte carte) {
+        return resoudre(new Plateau(carte));
+    }
+
+    /**
+     * Cherche une solution sur un plateau.
+     *
+     * @param plateau Le plateau à résoudre.
+     * @return La suite de mouvements du robot, ou null si aucune solution n'a été trouvée.
+     */
+    public List<Direction> resoudre(Plateau plateau) {
+        long debut = System.nanoTime();
+        long echeance = limiteTemps > 0 ? debut + limiteTemps * 1_000_000 : Long.MAX_VALUE;
+        MesureMemoire memoire = new MesureMemoire(limiteMemoire);
+
+        heuristique.initialiser(plateau);
+        Expansion expansion = new Expansion(plateau, heuristique);
+        int taille = expansion.getTaille();
+        TableDesEtats table = new TableDesEtats(taille, 1 << 12);
+        FileDePriorite file = new FileDePriorite();
+        BitSet fermes = new BitSet();
+        parents = new int[1 << 12];
+        poussees = new int[1 << 12];
+        couts = new int[1 << 12];
+
+        long noeudsDeveloppes = 0;
+        long etatsGeneres = 0;
+        StatutRecherche statut = StatutRecherche.INSOLUBLE;
+        int solution = -1;
+
+        int[] etat = new int[taille];
+        if (plateau.getRobotInitial() >= 0) {
+            int[] initial = expansion.etatInitial();
+            int h0 = heuristique.estimer(initial, 0, taille - 1);
+            if (h0 != Plateau.INACCESSIBLE) {
+                int racine = table.inserer(initial, 0);
+                enregistrer(racine, -1, 0, 0);
+                file.ajouter(racine, h0);
+            }
+        }
+
+        while (!file.estVide()) {
+            int id = file.retirer();
+            if (fermes.get(id)) {
+                continue;
+            }
+            fermes.set(id);
+            table.lire(id, etat);
+            if (expansion.estResolu(etat)) {
+                statut = StatutRecherche.RESOLU;
+                solution = id;
+                break;
+            }
+
+            noeudsDeveloppes++;
+            if (noeudsDeveloppes % PERIODE_VERIFICATION == 0) {
+                boolean memoireEpuisee = memoire.echantillonner(octets(table, file, fermes));
+                if (Thread.currentThread().isInterrupted()) {
+                    statut = StatutRecherche.INTERROMPU;
+                    break;
+                }
+                if (memoireEpuisee || (limiteNoeuds > 0 && noeudsDeveloppes >= limiteNoeuds)
+                        || System.nanoTime() > echeance) {
+                    statut = StatutRecherche.LIMITE_ATTEINTE;
+                    break;
+                }
+            }
+
+            int nbSuccesseurs = expansion.developper(etat);
+            int[] successeurs = expansion.getSuccesseurs();
+            int cout = couts[id] + 1;
+            for (int k = 0; k < nbSuccesseurs; k++) {
+                etatsGeneres++;
+                int poussee = expansion.getPoussees()[k];
+                int h = expansion.getEstimations()[k];
+                int nouveau = table.inserer(successeurs, k * taille);
+                if (nouveau >= 0) {
+                    enregistrer(nouveau, id, poussee, cout);
+                    file.ajouter(nouveau, cout + h);
+                } else {
+                    int existant = -nouveau - 1;
+                    if (!fermes.get(existant) && cout < couts[existant]) {
+                        enregistrer(existant, id, poussee, cout);
+                        file.ajouter(existant, cout + h);
+                    }
+                }
+            }
+        }
+
+        memoire.echantillonner(octets(table, file, fermes));
+        List<Direction> chemin = solution < 0 ? null : reconstruire(plateau, expansion.getParcours(), solution);
+        statistiques = new StatistiquesRecherche(statut, noeudsDeveloppes, etatsGeneres,
+                table.getNbEtats(), System.nanoTime() - debut, memoire.getMaximum(),
+                solution < 0 ? -1 : couts[solution]);
+        parents = null;
+        poussees = null;
+        couts = null;
+        return chemin;
+    }
+
+    /**
+     * Calcule la mémoire occupée par les structures de la recherche en cours.
+     *
+     * @param table La table des états.
+     * @param file La file des nœuds en attente.
+     * @param fermes Les états déjà développés.
+     * @return Le nombre d'octets alloués.
+     */
+    private long octets(TableDesEtats table, FileDePriorite file, BitSet fermes) {
+        return table.getOctets() + file.getOctets() + 12L * parents.length + fermes.size() / 8;
+    }
+
+    /**
+     * Enregistre le parent, la poussée et le coût d'un état, en agrandissant les tableaux si besoin.
+     *
+     * @param id Le numéro de l'état.
+     * @param parent Le numéro de l'état parent, -1 pour la racine.
+     * @param poussee La poussée menant à l'état.
+     * @param cout Le nombre de poussées depuis la racine.
+     */
+    private void enregistrer(int id, int parent, int poussee, int cout) {
+        if (id >= parents.length) {
+            int capacite = parents.length + (parents.length >> 1);
+            parents = Arrays.copyOf(parents, capacite);
+            poussees = Arrays.copyOf(poussees, capacite);
+            couts = Arrays.copyOf(couts, capacite);
+        }
+        parents[id] = parent;
+        poussees[id] = poussee;
+        couts[id] = cout;
+    }
+
+    /**
+     * Reconstruit la suite complète des mouvements du robot menant à un état solution.
+     *
+     * @param plateau Le plateau.
+     * @param parcours Les tableaux de parcours du plateau.
+     * @param solution Le numéro de l'état solution.
+     * @return La suite des mouvements, marches et poussées comprises.
+     */
+    private List<Direction> reconstruire(Plateau plateau, Parcours parcours, int solution) {
+        int nbPoussees = couts[solution];
+        int[] suite = new int[nbPoussees];
+        for (int id = solution, k = nbPoussees - 1; parents[id] >= 0; id = parents[id], k--) {
+            suite[k] = poussees[id];
+        }
+        return rejouer(plateau, parcours, suite, nbPoussees);
+    }
+
+    /**
+     * Transforme une suite de poussées en suite complète de mouvements du robot,
+     * en ajoutant les marches nécessaires entre deux poussées.
+     *
+     * @param plateau Le plateau.
+     * @param parcours Les tableaux de parcours du plateau.
+     * @param suite Les poussées, codées par {@code caisse << 2 | direction}.
+     * @param nbPoussees Le nombre de poussées à lire dans la suite.
+     * @return La suite des mouvements du robot.
+     */
+    static List<Direction> rejouer(Plateau plateau, Parcours parcours, int[] suite, int nbPoussees) {
+        int[] caisses = plateau.getCaissesInitiales();
+        int[] decalages = plateau.getDecalages();
+        int robot = plateau.getRobotInitial();
+        List<Direction> chemin = new ArrayList<>();
+        for (int k = 0; k < nbPoussees; k++) {
+            int caisse = suite[k] >>> 2;
+            int d = suite[k] & 3;
+            parcours.placerCaisses(caisses, caisses.length);
+            parcours.ajouterChemin(robot, caisse - decalages[d], chemin);
+            chemin.add(Plateau.DIRECTIONS[d]);
+            for (int i = 0; i < caisses.length; i++) {
+                if (caisses[i] == caisse) {
+                    caisses[i] = caisse + decalages[d];
+                    break;
+                }
+            }
+            robot = caisse;
+        }
+        return chemin;
+    }
+}
@@ -0,0 +1,597 @@
+package modele.solveur;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import modele.Carte;
+import modele.Direction;
+
+/**
+ * La classe SolveurParallele répartit la recherche A* du solveur sur plusieurs threads
+ * (A* distribué par hachage). Chaque état appartient au thread désigné par son code
+ * de hachage : ce thread seul le mémorise dans sa propre table et le développe.
+ * La table des états est ainsi partagée en tranches sans aucun verrou, et les
+ * successeurs appartenant à un autre thread lui sont envoyés par une file non bloquante.
+ * La recherche s'arrête à la première solution trouvée, qui n'est donc pas
+ * garantie optimale en poussées, contrairement à celle de {@link Solveur}.
+ */
+public class SolveurParallele {
+
+    /**
+     * Nombre de nœuds développés par un thread entre deux vérifications des limites.
+     */
+    private static final int PERIODE_VERIFICATION = 1024;
+
+    /**
+     * Heuristique utilisée pour guider la recherche.
+     */
+    private final Heuristique heuristique;
+
+    /**
+     * Nombre de threads de recherche.
+     */
+    private final int nbThreads;
+
+    /**
+     * Durée maximale d'une recherche en millisecondes, 0 pour aucune limite.
+     */
+    private long limiteTemps;
+
+    /**
+     * Nombre maximal de nœuds développés, 0 pour aucune limite.
+     */
+    private long limiteNoeuds;
+
+    /**
+     * Mémoire maximale des structures d'une recherche en octets, 0 pour aucune limite,
+     * -1 pour la part par défaut du tas.
+     */
+    private long limiteMemoire = -1;
+
+    /**
+     * Statistiques de la dernière recherche.
+     */
+    private StatistiquesRecherche statistiques;
+
+    /**
+     * Constructeur utilisant l'heuristique des distances minimales.
+     *
+     * @param nbThreads Le nombre de threads de recherche.
+     */
+    public SolveurParallele(int nbThreads) {
+        this(new HeuristiqueDistanceMinimale(), nbThreads);
+    }
+
+    /**
+     * Constructeur avec une heuristique donnée.
+     *
+     * @param heuristique L'heuristique guidant la recherche.
+     * @param nbThreads Le nombre de threads de recherche.
+     * @throws IllegalArgumentException si le nombre de threads est inférieur à 1.
+     */
+    public SolveurParallele(Heuristique heuristique, int nbThreads) {
+        if (nbThreads < 1) {
+            throw new IllegalArgumentException("Nombre de threads invalide : " + nbThreads);
+        }
+        this.heuristique = heuristique;
+        this.nbThreads = nbThreads;
+    }
+
+    /**
+     * Fixe la durée maximale d'une recherche.
+     *
+     * @param millisecondes La durée maximale, 0 pour aucune limite.
+     */
+    public void setLimiteTemps(long millisecondes) {
+        this.limiteTemps = millisecondes;
+    }
+
+    /**
+     * Fixe le nombre maximal de nœuds développés par une recherche, tous threads confondus.
+     *
+     * @param noeuds Le nombre maximal de nœuds, 0 pour aucune limite.
+     */
+    public void setLimiteNoeuds(long noeuds) {
+        this.limiteNoeuds = noeuds;
+    }
+
+    /**
+     * Fixe la mémoire maximale occupée par les structures d'une recherche, tous threads confondus.
+     *
+     * @param octets La mémoire maximale en octets, 0 pour aucune limite.
+     */
+    public void setLimiteMemoire(long octets) {
+        this.limiteMemoire = octets;
+    }
+
+    /**
+     * Retourne le nombre de threads de recherche.
+     *
+     * @return Le nombre de threads.
+     */
+    public int getNbThreads() {
+        return nbThreads;
+    }
+
+    /**
+     * Retourne les statistiques de la dernière recherche.
+     *
+     * @return Les statistiques, ou null si aucune recherche n'a été lancée.
+     */
+    public StatistiquesRecherche getStatistiques() {
+        return statistiques;
+    }
+
+    /**
+     * Cherche une solution depuis l'état courant d'une carte. La carte n'est pas modifiée.
+     *
+     * @param carte La carte à résoudre.
+     * @return La suite de mouvements du robot, ou null si aucune solution n'a été trouvée.
+     */
+    public List<Direction> resoudre(Carte carte) {
+        return resoudre(new Plateau(carte));
+    }
+
+    /**
+     * Cherche une solution sur un plateau.
+     *
+     * @param plateau Le plateau à résoudre.
+     * @return La suite de mouvements du robot, ou null si aucune solution n'a été trouvée.
+     */
+    public List<Direction> resoudre(Plateau plateau) {
+        long debut = System.nanoTime();
+        heuristique.initialiser(plateau);
+        Recherche recherche = new Recherche(plateau, debut);
+
+        if (plateau.getRobotInitial() >= 0) {
+            int[] initial = recherche.travailleurs[0].expansion.etatInitial();
+            int h0 = heuristique.estimer(initial, 0, initial.length - 1);
+            if (h0 != Plateau.INACCESSIBLE) {
+                int hachage = TableDesEtats.hacher(initial, 0, initial.length);
+                recherche.travailleurs[recherche.proprietaire(hachage)]
+                        .ajouterRacine(initial, hachage, h0);
+            }
+        }
+
+        Thread[] threads = new Thread[nbThreads];
+        for (int i = 0; i < nbThreads; i++) {
+            threads[i] = new Thread(recherche.travailleurs[i], "solveur-" + i);
+            threads[i].setDaemon(true);
+            threads[i].start();
+        }
+        // Même interrompu, l'appelant attend la fin des threads avant de lire leurs tables.
+        boolean interrompu = false;
+        for (Thread thread : threads) {
+            boolean termine = false;
+            while (!termine) {
+                try {
+                    thread.join();
+                    termine = true;
+                } catch (InterruptedException e) {
+                    interrompu = true;
+                    recherche.arreter(StatutRecherche.INTERROMPU);
+                }
+            }
+        }
+
+        StatutRecherche statut = recherche.statut.get();
+        List<Direction> chemin = null;
+        int nbPoussees = -1;
+        if (statut == StatutRecherche.RESOLU) {
+            long reference = recherche.solution;
+            nbPoussees = recherche.travailleurs[(int) (reference >>> 32)].couts[(int) reference];
+            int[] suite = new int[nbPoussees];
+            for (int k = nbPoussees - 1; k >= 0; k--) {
+                Travailleur t = recherche.travailleurs[(int) (reference >>> 32)];
+                suite[k] = t.poussees[(int) reference];
+                reference = t.parents[(int) reference];
+            }
+            chemin = Solveur.rejouer(plateau, new Parcours(plateau), suite, nbPoussees);
+        }
+
+        long etatsMemorises = 0;
+        for (Travailleur t : recherche.travailleurs) {
+            etatsMemorises += t.table.getNbEtats();
+        }
+        recherche.memoire.echantillonner(recherche.octets());
+        statistiques = new StatistiquesRecherche(statut, recherche.noeuds.get(),
+                recherche.etatsGeneres.get(), etatsMemorises, System.nanoTime() - debut,
+                recherche.memoire.getMaximum(), nbPoussees);
+        if (interrompu) {
+            Thread.currentThread().interrupt();
+        }
+        return chemin;
+    }
+
+    /**
+     * État partagé d'une recherche parallèle.
+     */
+    private final class Recherche {
+
+        /**
+         * Le plateau en cours de résolution.
+         */
+        private final Plateau plateau;
+
+        /**
+         * Les threads de recherche, un par tranche de l'espace des états.
+         */
+        private final Travailleur[] travailleurs;
+
+        /**
+         * Instant limite de la recherche, en nanosecondes.
+         */
+        private final long echeance;
+
+        /**
+         * Statut de la recherche, null tant qu'elle est en cours.
+         */
+        private final AtomicReference<StatutRecherche> statut = new AtomicReference<>();
+
+        /**
+         * Indicateur d'arrêt lu par tous les threads.
+         */
+        private volatile boolean arret;
+
+        /**
+         * Référence de l'état solution, codée par {@code thread << 32 | numero}.
+         */
+        private volatile long solution = -1;
+
+        /**
+         * Travail restant : nœuds en attente dans les files plus messages en transit.
+         * Un message est compté avant d'être envoyé, et un nœud n'est décompté qu'une fois
+         * ses successeurs comptés : le total ne peut donc atteindre zéro que si la recherche
+         * est vraiment épuisée.
+         */
+        private final AtomicLong travail = new AtomicLong();
+
+        /**
+         * Nombre total de nœuds développés.
+         */
+        private final AtomicLong noeuds = new AtomicLong();
+
+        /**
+         * Nombre total d'états générés.
+         */
+        private final AtomicLong etatsGeneres = new AtomicLong();
+
+        /**
+         * Relevé de la mémoire, effectué par le premier thread.
+         */
+        private final MesureMemoire memoire = new MesureMemoire(limiteMemoire);
+
+        /**
+         * Prépare une recherche.
+         *
+         * @param plateau Le plateau à résoudre.
+         * @param debut Instant de début de la recherche, en nanosecondes.
+         */
+        Recherche(Plateau plateau, long debut) {
+            this.plateau = plateau;
+            this.echeance = limiteTemps > 0 ? debut + limiteTemps * 1_000_000 : Long.MAX_VALUE;
+            this.travailleurs = new Travailleur[nbThreads];
+            for (int i = 0; i < nbThreads; i++) {
+                travailleurs[i] = new Travailleur(this, i);
+            }
+        }
+
+        /**
+         * Désigne le thread propriétaire d'un état à partir de son code de hachage.
+         * Les bits de poids fort sont utilisés, les bits de poids faible servant
+         * à placer l'état dans la table du propriétaire.
+         *
+         * @param hachage Le code de hachage de l'état.
+         * @return Le numéro du thread propriétaire.
+         */
+        int proprietaire(int hachage) {
+            return (int) (((hachage & 0xFFFFFFFFL) * nbThreads) >>> 32);
+        }
+
+        /**
+         * Additionne la mémoire publiée par chaque thread pour ses propres structures.
+         *
+         * @return Le nombre d'octets alloués par la recherche.
+         */
+        long octets() {
+            long total = 0;
+            for (Travailleur t : travailleurs) {
+                total += t.octets;
+            }
+            return total;
+        }
+
+        /**
+         * Arrête la recherche avec un statut, si elle n'est pas déjà arrêtée.
+         *
+         * @param statutFinal Le statut de fin de recherche.
+         * @return true si ce statut a été retenu, false si la recherche était déjà arrêtée.
+         */
+        boolean arreter(StatutRecherche statutFinal) {
+            boolean retenu = statut.compareAndSet(null, statutFinal);
+            arret = true;
+            return retenu;
+        }
+    }
+
+    /**
+     * Thread de recherche possédant une tranche de l'espace des états.
+     */
+    private final class Travailleur implements Runnable {
+
+        /**
+         * La recherche à laquelle participe ce thread.
+         */
+        private final Recherche recherche;
+
+        /**
+         * Numéro de ce thread.
+         */
+        private final int numero;
+
+        /**
+         * Calcul des successeurs, propre à ce thread.
+         */
+        private final Expansion expansion;
+
+        /**
+         * Nombre d'entiers d'un état.
+         */
+        private final int taille;
+
+        /**
+         * États appartenant à ce thread.
+         */
+        private final TableDesEtats table;
+
+        /**
+         * Nœuds en attente de développement.
+         */
+        private final FileDePriorite file = new FileDePriorite();
+
+        /**
+         * États déjà développés.
+         */
+        private final BitSet fermes = new BitSet();
+
+        /**
+         * Messages reçus des autres threads : successeurs appartenant à ce thread.
+         * Un message contient l'état suivi de son code de hachage, du parent,
+         * de la poussée, du coût et de l'estimation.
+         */
+        private final ConcurrentLinkedQueue<int[]> boite = new ConcurrentLinkedQueue<>();
+
+        /**
+         * Parent de chaque état, codé par {@code thread << 32 | numero}.
+         */
+        private long[] parents = new long[1 << 10];
+
+        /**
+         * Poussée ayant mené à chaque état.
+         */
+        private int[] poussees = new int[1 << 10];
+
+        /**
+         * Nombre de poussées depuis l'état initial pour chaque état.
+         */
+        private int[] couts = new int[1 << 10];
+
+        /**
+         * Mémoire occupée par les structures de ce thread, publiée à chaque vérification des limites.
+         */
+        private volatile long octets;
+
+        /**
+         * Prépare un thread de recherche.
+         *
+         * @param recherche La recherche partagée.
+         * @param numero Le numéro du thread.
+         */
+        Travailleur(Recherche recherche, int numero) {
+            this.recherche = recherche;
+            this.numero = numero;
+            this.expansion = new Expansion(recherche.plateau, heuristique);
+            this.taille = expansion.getTaille();
+            this.table = new TableDesEtats(taille, 1 << 10);
+        }
+
+        /**
+         * Ajoute l'état initial dans la tranche de ce thread, avant le démarrage des threads.
+         *
+         * @param etat L'état initial.
+         * @param hachage Son code de hachage.
+         * @param estimation Son estimation par l'heuristique.
+         */
+        void ajouterRacine(int[] etat, int hachage, int estimation) {
+            int racine = table.inserer(etat, 0, hachage);
+            enregistrer(racine, -1L, 0, 0);
+            file.ajouter(racine, estimation);
+            recherche.travail.incrementAndGet();
+        }
+
+        @Override
+        public void run() {
+            int[] etat = new int[taille];
+            long developpes = 0;
+            while (!recherche.arret) {
+                long variation = recevoir();
+                int id = file.retirer();
+                if (id < 0) {
+                    long restant = variation != 0 ? recherche.travail.addAndGet(variation)
+                            : recherche.travail.get();
+                    if (restant == 0) {
+                        recherche.arreter(StatutRecherche.INSOLUBLE);
+                    } else {
+                        LockSupport.parkNanos(10_000);
+                    }
+                    continue;
+                }
+                // Le nœud retiré sort du travail restant une fois ses successeurs comptés.
+                variation--;
+                if (fermes.get(id)) {
+                    recherche.travail.addAndGet(variation);
+                    continue;
+                }
+                fermes.set(id);
+                table.lire(id, etat);
+                if (expansion.estResolu(etat)) {
+                    if (recherche.arreter(StatutRecherche.RESOLU)) {
+                        recherche.solution = (long) numero << 32 | id;
+                    }
+                    break;
+                }
+
+                developpes++;
+                if (developpes % PERIODE_VERIFICATION == 0 && verifierLimites()) {
+                    break;
+                }
+                variation += developper(id, etat);
+                recherche.travail.addAndGet(variation);
+            }
+            recherche.noeuds.addAndGet(developpes % PERIODE_VERIFICATION);
+            publierOctets();
+        }
+
+        /**
+         * Publie la mémoire occupée par la table, la file et les tableaux de ce thread.
+         */
+        private void publierOctets() {
+            octets = table.getOctets() + file.getOctets() + 16L * parents.length + fermes.size() / 8;
+        }
+
+        /**
+         * Vérifie les limites de la recherche et l'interruption.
+         *
+         * @return true si la recherche doit s'arrêter, false sinon.
+         */
+        private boolean verifierLimites() {
+            long total = recherche.noeuds.addAndGet(PERIODE_VERIFICATION);
+            publierOctets();
+            boolean memoireEpuisee = numero == 0 && recherche.memoire.echantillonner(recherche.octets());
+            if (Thread.currentThread().isInterrupted()) {
+                recherche.arreter(StatutRecherche.INTERROMPU);
+                return true;
+            }
+            if (memoireEpuisee || (limiteNoeuds > 0 && total >= limiteNoeuds)
+                    || System.nanoTime() > recherche.echeance) {
+                recherche.arreter(StatutRecherche.LIMITE_ATTEINTE);
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Développe un nœud : ses successeurs sont ajoutés à la file de ce thread
+         * ou envoyés au thread qui les possède.
+         *
+         * @param id Le numéro du nœud.
+         * @param etat Le contenu du nœud.
+         * @return Le nombre de nœuds ajoutés à la file de ce thread. Les messages envoyés
+         *         sont comptés dans le travail restant avant leur envoi.
+         */
+        private long developper(int id, int[] etat) {
+            int nbSuccesseurs = expansion.developper(etat);
+            int[] successeurs = expansion.getSuccesseurs();
+            int cout = couts[id] + 1;
+            long parent = (long) numero << 32 | id;
+            long crees = 0;
+            recherche.etatsGeneres.addAndGet(nbSuccesseurs);
+            for (int k = 0; k < nbSuccesseurs; k++) {
+                int debut = k * taille;
+                int hachage = TableDesEtats.hacher(successeurs, debut, taille);
+                int poussee = expansion.getPoussees()[k];
+                int h = expansion.getEstimations()[k];
+                int cible = recherche.proprietaire(hachage);
+                if (cible == numero) {
+                    if (ajouter(successeurs, debut, hachage, parent, poussee, cout, h)) {
+                        crees++;
+                    }
+                } else {
+                    int[] message = Arrays.copyOfRange(successeurs, debut, debut + taille + 6);
+                    message[taille] = hachage;
+                    message[taille + 1] = (int) (parent >>> 32);
+                    message[taille + 2] = (int) parent;
+                    message[taille + 3] = poussee;
+                    message[taille + 4] = cout;
+                    message[taille + 5] = h;
+                    // Compté avant l'envoi : le destinataire peut le consommer aussitôt.
+                    recherche.travail.incrementAndGet();
+                    recherche.travailleurs[cible].boite.offer(message);
+                }
+            }
+            return crees;
+        }
+
+        /**
+         * Traite les messages reçus des autres threads.
+         *
+         * @return La variation du travail restant (nœuds ajoutés moins messages consommés).
+         */
+        private long recevoir() {
+            long variation = 0;
+            int[] message;
+            while ((message = boite.poll()) != null) {
+                long parent = (long) message[taille + 1] << 32 | (message[taille + 2] & 0xFFFFFFFFL);
+                if (ajouter(message, 0, message[taille], parent, message[taille + 3],
+                        message[taille + 4], message[taille + 5])) {
+                    variation++;
+                }
+                variation--;
+            }
+            return variation;
+        }
+
+        /**
+         * Ajoute un état appartenant à ce thread, ou améliore son coût s'il est déjà connu.
+         *
+         * @param source Le tableau contenant l'état.
+         * @param debut La position de l'état dans le tableau.
+         * @param hachage Le code de hachage de l'état.
+         * @param parent La référence du parent.
+         * @param poussee La poussée menant à l'état.
+         * @param cout Le nombre de poussées depuis la racine.
+         * @param h L'estimation de l'heuristique.
+         * @return true si l'état a été placé dans la file, false sinon.
+         */
+        private boolean ajouter(int[] source, int debut, int hachage, long parent, int poussee,
+                int cout, int h) {
+            int nouveau = table.inserer(source, debut, hachage);
+            if (nouveau >= 0) {
+                enregistrer(nouveau, parent, poussee, cout);
+                file.ajouter(nouveau, cout + h);
+                return true;
+            }
+            int existant = -nouveau - 1;
+            if (!fermes.get(existant) && cout < couts[existant]) {
+                enregistrer(existant, parent, poussee, cout);
+                file.ajouter(existant, cout + h);
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Enregistre le parent, la poussée et le coût d'un état.
+         *
+         * @param id Le numéro de l'état.
+         * @param parent La référence du parent, -1 pour la racine.
+         * @param poussee La poussée menant à l'état.
+         * @param cout Le nombre de poussées depuis la racine.
+         */
+        private void enregistrer(int id, long parent, int poussee, int cout) {
+            if (id >= parents.length) {
+                int capacite = parents.length + (parents.length >> 1);
+                parents = Arrays.copyOf(parents, capacite);
+                poussees = Arrays.copyOf(poussees, capacite);
+                couts = Arrays.copyOf(couts, capacite);
+            }
+            parents[id] = parent;
+            poussees[id] = poussee;
+            couts[id] = cout;
+        }
+    }
+}
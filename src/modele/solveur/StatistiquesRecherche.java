@@ -0,0 +1,151 @@
+package modele.solveur;
+
+/**
+ * La classe StatistiquesRecherche rassemble les mesures d'une recherche du solveur :
+ * nœuds développés, états générés, durée, débit et mémoire maximale observée.
+ * Elles permettent de dimensionner le solveur pour les grands niveaux.
+ */
+public class StatistiquesRecherche {
+
+    /**
+     * Statut final de la recherche.
+     */
+    private final StatutRecherche statut;
+
+    /**
+     * Nombre de nœuds développés (états dont on a calculé les successeurs).
+     */
+    private final long noeudsDeveloppes;
+
+    /**
+     * Nombre d'états successeurs générés, doublons compris.
+     */
+    private final long etatsGeneres;
+
+    /**
+     * Nombre d'états distincts mémorisés dans la table.
+     */
+    private final long etatsMemorises;
+
+    /**
+     * Durée de la recherche en nanosecondes.
+     */
+    private final long dureeNanos;
+
+    /**
+     * Mémoire maximale occupée par les structures de la recherche, en octets.
+     */
+    private final long memoireMax;
+
+    /**
+     * Nombre de poussées de la solution, ou -1 sans solution.
+     */
+    private final int nbPoussees;
+
+    /**
+     * Constructeur des statistiques.
+     *
+     * @param statut Statut final de la recherche.
+     * @param noeudsDeveloppes Nombre de nœuds développés.
+     * @param etatsGeneres Nombre d'états générés.
+     * @param etatsMemorises Nombre d'états distincts mémorisés.
+     * @param dureeNanos Durée de la recherche en nanosecondes.
+     * @param memoireMax Mémoire maximale des structures de la recherche en octets.
+     * @param nbPoussees Nombre de poussées de la solution, ou -1.
+     */
+    public StatistiquesRecherche(StatutRecherche statut, long noeudsDeveloppes, long etatsGeneres,
+            long etatsMemorises, long dureeNanos, long memoireMax, int nbPoussees) {
+        this.statut = statut;
+        this.noeudsDeveloppes = noeudsDeveloppes;
+        this.etatsGeneres = etatsGeneres;
+        this.etatsMemorises = etatsMemorises;
+        this.dureeNanos = dureeNanos;
+        this.memoireMax = memoireMax;
+        this.nbPoussees = nbPoussees;
+    }
+
+    /**
+     * Retourne le statut final de la recherche.
+     *
+     * @return Le statut.
+     */
+    public StatutRecherche getStatut() {
+        return statut;
+    }
+
+    /**
+     * Retourne le nombre de nœuds développés.
+     *
+     * @return Le nombre de nœuds développés.
+     */
+    public long getNoeudsDeveloppes() {
+        return noeudsDeveloppes;
+    }
+
+    /**
+     * Retourne le nombre d'états générés, doublons compris.
+     *
+     * @return Le nombre d'états générés.
+     */
+    public long getEtatsGeneres() {
+        return etatsGeneres;
+    }
+
+    /**
+     * Retourne le nombre d'états distincts mémorisés.
+     *
+     * @return Le nombre d'états mémorisés.
+     */
+    public long getEtatsMemorises() {
+        return etatsMemorises;
+    }
+
+    /**
+     * Retourne la durée de la recherche.
+     *
+     * @return La durée en nanosecondes.
+     */
+    public long getDureeNanos() {
+        return dureeNanos;
+    }
+
+    /**
+     * Retourne le débit de la recherche en états générés par seconde.
+     *
+     * @return Le nombre d'états par seconde.
+     */
+    public double getEtatsParSeconde() {
+        return dureeNanos == 0 ? 0 : etatsGeneres * 1e9 / dureeNanos;
+    }
+
+    /**
+     * Retourne la mémoire maximale occupée par les structures de la recherche.
+     *
+     * @return La mémoire en octets.
+     */
+    public long getMemoireMax() {
+        return memoireMax;
+    }
+
+    /**
+     * Retourne le nombre de poussées de la solution.
+     *
+     * @return Le nombre de poussées, ou -1 sans solution.
+     */
+    public int getNbPoussees() {
+        return nbPoussees;
+    }
+
+    /**
+     * Retourne un résumé lisible des statistiques.
+     *
+     * @return Le résumé sur une ligne.
+     */
+    @Override
+    public String toString() {
+        return String.format("%s : %d poussées, %d nœuds développés, %d états mémorisés, "
+                + "%.0f états/s, %d ms, mémoire max %d Mo",
+                statut, nbPoussees, noeudsDeveloppes, etatsMemorises, getEtatsParSeconde(),
+                dureeNanos / 1_000_000, memoireMax / (1024 * 1024));
+    }
+}
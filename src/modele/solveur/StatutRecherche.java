@@ -0,0 +1,26 @@
+package modele.solveur;
+
+/**
+ * L'énumération StatutRecherche indique comment s'est terminée une recherche du solveur.
+ */
+public enum StatutRecherche {
+    /**
+     * Une solution a été trouvée.
+     */
+    RESOLU,
+
+    /**
+     * Tous les états ont été explorés : le niveau n'a pas de solution.
+     */
+    INSOLUBLE,
+
+    /**
+     * La limite de temps, de nœuds ou de mémoire a été atteinte avant la fin de la recherche.
+     */
+    LIMITE_ATTEINTE,
+
+    /**
+     * Le thread de recherche a été interrompu.
+     */
+    INTERROMPU
+}
@@ -0,0 +1,169 @@
+package modele.solveur;
+
+import java.util.Arrays;
+
+/**
+ * La classe TableDesEtats mémorise les états déjà rencontrés par le solveur.
+ * Chaque état est une suite d'entiers de taille fixe (les indices triés des caisses
+ * suivis de la position normalisée du robot), rangée dans des blocs d'entiers de taille fixe,
+ * ce qui évite de recopier tous les états quand la table grandit.
+ * L'accès se fait par une table de hachage à adressage ouvert qui ne stocke que
+ * les numéros des états : aucune allocation n'a lieu par état.
+ */
+class TableDesEtats {
+
+    /**
+     * Nombre d'états rangés dans un bloc (puissance de deux).
+     */
+    private static final int ETATS_PAR_BLOC = 1 << 14;
+
+    /**
+     * Nombre d'entiers occupés par un état.
+     */
+    private final int taille;
+
+    /**
+     * Blocs contenant les états, rangés les uns à la suite des autres.
+     */
+    private int[][] blocs;
+
+    /**
+     * Nombre d'états mémorisés.
+     */
+    private int nbEtats;
+
+    /**
+     * Alvéoles de la table de hachage : numéro de l'état plus un, ou 0 si l'alvéole est libre.
+     */
+    private int[] alveoles;
+
+    /**
+     * Masque appliqué au code de hachage pour obtenir une alvéole.
+     */
+    private int masque;
+
+    /**
+     * Construit une table vide.
+     *
+     * @param taille Nombre d'entiers occupés par un état.
+     * @param capacite Nombre d'états prévus initialement.
+     */
+    TableDesEtats(int taille, int capacite) {
+        this.taille = taille;
+        int nbAlveoles = Integer.highestOneBit(Math.max(16, capacite * 2 - 1)) << 1;
+        this.alveoles = new int[nbAlveoles];
+        this.masque = nbAlveoles - 1;
+        this.blocs = new int[16][];
+    }
+
+    /**
+     * Calcule le code de hachage d'un état.
+     *
+     * @param etat Tableau contenant l'état.
+     * @param debut Position de l'état dans le tableau.
+     * @param taille Nombre d'entiers de l'état.
+     * @return Le code de hachage.
+     */
+    static int hacher(int[] etat, int debut, int taille) {
+        int h = 0x811C9DC5;
+        for (int i = debut; i < debut + taille; i++) {
+            h = (h ^ etat[i]) * 0x01000193;
+        }
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        return h ^ (h >>> 13);
+    }
+
+    /**
+     * Ajoute un état s'il n'est pas déjà présent.
+     *
+     * @param etat Tableau contenant l'état à ajouter.
+     * @param debut Position de l'état dans le tableau.
+     * @return Le numéro du nouvel état, ou {@code -(numero + 1)} si l'état était déjà présent.
+     */
+    int inserer(int[] etat, int debut) {
+        return inserer(etat, debut, hacher(etat, debut, taille));
+    }
+
+    /**
+     * Ajoute un état dont le code de hachage est déjà connu, s'il n'est pas déjà présent.
+     *
+     * @param etat Tableau contenant l'état à ajouter.
+     * @param debut Position de l'état dans le tableau.
+     * @param hachage Le code de hachage de l'état.
+     * @return Le numéro du nouvel état, ou {@code -(numero + 1)} si l'état était déjà présent.
+     */
+    int inserer(int[] etat, int debut, int hachage) {
+        int alveole = hachage & masque;
+        while (alveoles[alveole] != 0) {
+            int id = alveoles[alveole] - 1;
+            int position = (id & (ETATS_PAR_BLOC - 1)) * taille;
+            if (Arrays.equals(blocs[id / ETATS_PAR_BLOC], position, position + taille, etat, debut, debut + taille)) {
+                return -(id + 1);
+            }
+            alveole = (alveole + 1) & masque;
+        }
+        int id = nbEtats++;
+        int bloc = id / ETATS_PAR_BLOC;
+        if (bloc == blocs.length) {
+            blocs = Arrays.copyOf(blocs, blocs.length * 2);
+        }
+        if (blocs[bloc] == null) {
+            blocs[bloc] = new int[ETATS_PAR_BLOC * taille];
+        }
+        System.arraycopy(etat, debut, blocs[bloc], (id & (ETATS_PAR_BLOC - 1)) * taille, taille);
+        alveoles[alveole] = id + 1;
+        if (nbEtats * 2 > alveoles.length) {
+            agrandir();
+        }
+        return id;
+    }
+
+    /**
+     * Double le nombre d'alvéoles et y range à nouveau tous les états.
+     */
+    private void agrandir() {
+        int[] nouvelles = new int[alveoles.length * 2];
+        int nouveauMasque = nouvelles.length - 1;
+        int[] etat = new int[taille];
+        for (int id = 0; id < nbEtats; id++) {
+            lire(id, etat);
+            int alveole = hacher(etat, 0, taille) & nouveauMasque;
+            while (nouvelles[alveole] != 0) {
+                alveole = (alveole + 1) & nouveauMasque;
+            }
+            nouvelles[alveole] = id + 1;
+        }
+        alveoles = nouvelles;
+        masque = nouveauMasque;
+    }
+
+    /**
+     * Copie un état mémorisé dans un tableau.
+     *
+     * @param id Le numéro de l'état.
+     * @param etat Le tableau de destination.
+     */
+    void lire(int id, int[] etat) {
+        System.arraycopy(blocs[id / ETATS_PAR_BLOC], (id & (ETATS_PAR_BLOC - 1)) * taille, etat, 0, taille);
+    }
+
+    /**
+     * Retourne le nombre d'états mémorisés.
+     *
+     * @return Le nombre d'états.
+     */
+    int getNbEtats() {
+        return nbEtats;
+    }
+
+    /**
+     * Retourne la mémoire occupée par les tableaux de la table.
+     *
+     * @return Le nombre d'octets alloués.
+     */
+    long getOctets() {
+        long nbBlocs = (nbEtats + ETATS_PAR_BLOC - 1) / ETATS_PAR_BLOC;
+        return 4L * (nbBlocs * ETATS_PAR_BLOC * taille + alveoles.length);
+    }
+}
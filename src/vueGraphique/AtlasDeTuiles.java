@@ -0,0 +1,155 @@
+package vueGraphique;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import javax.imageio.ImageIO;
+
+/**
+ * La classe AtlasDeTuiles charge une seule fois les images des cases du jeu et les regroupe,
+ * pour chaque niveau de zoom, dans une seule image (un atlas) déjà mise à l'échelle.
+ * <p>
+ * Les images sont cherchées dans le classpath ({@code /images/...}), ce qui permet de jouer
+ * depuis le jar, puis dans le dossier {@code ./src/images} si elles n'y sont pas.
+ * Chaque tuile est désignée par un identifiant entier ({@link #TUILE_SOL}, ...), et son dessin
+ * est une simple copie d'un rectangle de l'atlas, sans mise à l'échelle pendant l'affichage.
+ */
+public class AtlasDeTuiles {
+
+    /** Tuile du sol. */
+    public static final int TUILE_SOL = 0;
+
+    /** Tuile d'une destination. */
+    public static final int TUILE_DESTINATION = 1;
+
+    /** Tuile d'un mur. */
+    public static final int TUILE_MUR = 2;
+
+    /** Tuile d'une caisse hors destination. */
+    public static final int TUILE_CAISSE = 3;
+
+    /** Tuile d'une caisse placée sur une destination. */
+    public static final int TUILE_CAISSE_PLACEE = 4;
+
+    /**
+     * Première tuile du robot. Les quatre tuiles du robot se suivent dans l'ordre
+     * des directions : la tuile d'une direction est {@code TUILE_ROBOT + direction.ordinal()}.
+     */
+    public static final int TUILE_ROBOT = 5;
+
+    /** Fichiers des images de chaque tuile, dans l'ordre des identifiants. */
+    private static final String[] FICHIERS = {
+        "sol.gif", "but.gif", "mur.gif", "caisse1.gif", "caisse2.gif",
+        "Haut.gif", "Bas.gif", "Gauche.gif", "Droite.gif"
+    };
+
+    /** Taille en pixels d'une case pour chaque niveau de zoom. */
+    private static final int[] TAILLES = {16, 24, 32, 48, 64};
+
+    /** Niveau de zoom par défaut, correspondant à des cases de 32 pixels. */
+    public static final int ZOOM_PAR_DEFAUT = 2;
+
+    /** Atlas de chaque niveau de zoom : toutes les tuiles côte à côte sur une ligne. */
+    private final BufferedImage[] atlas;
+
+    /**
+     * Charge les images des tuiles et construit l'atlas de chaque niveau de zoom.
+     *
+     * @throws IOException Si une image ne peut être lue ni dans le classpath ni sur le disque.
+     */
+    public AtlasDeTuiles() throws IOException {
+        BufferedImage[] originales = new BufferedImage[FICHIERS.length];
+        for (int i = 0; i < FICHIERS.length; i++) {
+            originales[i] = lireImage(FICHIERS[i]);
+        }
+        atlas = new BufferedImage[TAILLES.length];
+        for (int niveau = 0; niveau < TAILLES.length; niveau++) {
+            int taille = TAILLES[niveau];
+            atlas[niveau] = creerImageCompatible(taille * FICHIERS.length, taille);
+            Graphics2D g = atlas[niveau].createGraphics();
+            for (int i = 0; i < originales.length; i++) {
+                g.drawImage(originales[i], i * taille, 0, taille, taille, null);
+            }
+            g.dispose();
+        }
+    }
+
+    /**
+     * Lit une image depuis le classpath, ou à défaut depuis le dossier {@code ./src/images}.
+     *
+     * @param nom Le nom du fichier de l'image.
+     * @return L'image lue.
+     * @throws IOException Si l'image est introuvable ou illisible.
+     */
+    private static BufferedImage lireImage(String nom) throws IOException {
+        BufferedImage image = null;
+        try (InputStream flux = AtlasDeTuiles.class.getResourceAsStream("/images/" + nom)) {
+            if (flux != null) {
+                image = ImageIO.read(flux);
+            }
+        }
+        if (image == null) {
+            image = ImageIO.read(new File("./src/images/" + nom));
+        }
+        if (image == null) {
+            throw new IOException("Image illisible : " + nom);
+        }
+        return image;
+    }
+
+    /**
+     * Crée une image transparente au format de l'écran, pour être recopiée sans conversion.
+     *
+     * @param largeur La largeur de l'image.
+     * @param hauteur La hauteur de l'image.
+     * @return L'image créée.
+     */
+    private static BufferedImage creerImageCompatible(int largeur, int hauteur) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(largeur, hauteur, BufferedImage.TYPE_INT_ARGB);
+        }
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                .getDefaultConfiguration().createCompatibleImage(largeur, hauteur, Transparency.TRANSLUCENT);
+    }
+
+    /**
+     * Retourne le nombre de niveaux de zoom disponibles.
+     *
+     * @return Le nombre de niveaux de zoom.
+     */
+    public static int getNbNiveauxZoom() {
+        return TAILLES.length;
+    }
+
+    /**
+     * Retourne la taille en pixels d'une case pour un niveau de zoom.
+     *
+     * @param niveau Le niveau de zoom.
+     * @return La taille d'une case.
+     */
+    public static int getTaille(int niveau) {
+        return TAILLES[niveau];
+    }
+
+    /**
+     * Dessine une tuile à l'emplacement d'une case, à la taille d'un niveau de zoom.
+     *
+     * @param g L'objet Graphics utilisé pour dessiner.
+     * @param tuile L'identifiant de la tuile.
+     * @param niveau Le niveau de zoom.
+     * @param x Coordonnée X de la case.
+     * @param y Coordonnée Y de la case.
+     */
+    public void dessiner(Graphics g, int tuile, int niveau, int x, int y) {
+        int taille = TAILLES[niveau];
+        int px = x * taille;
+        int py = y * taille;
+        int sx = tuile * taille;
+        g.drawImage(atlas[niveau], px, py, px + taille, py + taille, sx, 0, sx + taille, taille, null);
+    }
+}
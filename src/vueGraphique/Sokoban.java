@@ -1,10 +1,11 @@
 package vueGraphique;
 
+import java.io.IOException;
 import javax.swing.JFrame;
 import javax.swing.SwingUtilities;
 import modele.Carte;
 import modele.GestionnaireDeLevels;
-import modele.Lecture;
+import modele.PaquetDeNiveaux;
 
 /**
  * La classe Sokoban représente la fenêtre principale de l'application Sokoban.
@@ -24,11 +25,21 @@ public class Sokoban extends JFrame {
      * et charge le niveau courant au démarrage.
      */
     public Sokoban() {
+        this(new GestionnaireDeLevels());
+    }
+
+    /**
+     * Constructeur de la classe Sokoban avec un gestionnaire de niveaux donné,
+     * par exemple pour jouer les niveaux d'un paquet.
+     *
+     * @param gestionnaireDeLevels Le gestionnaire des niveaux à jouer.
+     */
+    public Sokoban(GestionnaireDeLevels gestionnaireDeLevels) {
         super("Sokoban");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 
         // Initialisation du gestionnaire des niveaux
-        gestionnaireDeLevels = new GestionnaireDeLevels();
+        this.gestionnaireDeLevels = gestionnaireDeLevels;
 
         // Chargement du premier niveau
         chargerNiveau(gestionnaireDeLevels.getNiveauCourant());
@@ -39,20 +50,19 @@ public class Sokoban extends JFrame {
     }
 
     /**
-     * Charge un niveau à partir d'un fichier.
+     * Charge un niveau à partir de son fichier ou de son paquet.
      *
      * @param cheminFichier Chemin du fichier contenant la carte du niveau.
      */
     private void chargerNiveau(String cheminFichier) {
-        Lecture lecture = new Lecture(cheminFichier);
-        
-        // Vérification que le fichier contient des lignes valides
-        if (lecture.getNbLignes() > 0) {
-            Carte carte = new Carte(lecture.getLignes());
+        Carte carte = gestionnaireDeLevels.creerCarteNiveauCourant();
+
+        // Vérification que le fichier contient une carte valide
+        if (carte != null) {
 
             // Si vueSokoban n'existe pas encore, on l'initialise
             if (vueSokoban == null) {
-                vueSokoban = new VueSokoban(carte, this);
+                vueSokoban = new VueSokoban(carte, this, gestionnaireDeLevels);
                 add(vueSokoban);
                 pack(); // Ajuste automatiquement la taille de la fenêtre
             } else {
@@ -92,9 +102,23 @@ public class Sokoban extends JFrame {
      * Point d'entrée principal de l'application.
      * Lance la fenêtre principale de Sokoban dans le thread Event Dispatch Thread.
      *
-     * @param args Argument de ligne de commande (non utilisé).
+     * @param args Arguments de ligne de commande : le chemin d'un paquet
+     *             de niveaux {@code .sok} / {@code .xsb}, facultatif.
      */
     public static void main(String[] args) {
-        SwingUtilities.invokeLater(Sokoban::new);
+        if (args.length == 0) {
+            SwingUtilities.invokeLater(Sokoban::new);
+            return;
+        }
+        try {
+            PaquetDeNiveaux paquet = new PaquetDeNiveaux(args[0]);
+            if (paquet.getNbNiveaux() == 0) {
+                System.out.println("Erreur : Aucun niveau dans le paquet " + args[0]);
+                return;
+            }
+            SwingUtilities.invokeLater(() -> new Sokoban(new GestionnaireDeLevels(paquet)));
+        } catch (IOException e) {
+            System.out.println("Erreur : Impossible d'ouvrir le paquet " + args[0] + " : " + e.getMessage());
+        }
     }
 }
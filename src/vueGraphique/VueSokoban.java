@@ -3,35 +3,43 @@ package vueGraphique;
 import java.awt.*;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
-import javax.imageio.ImageIO;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 import javax.swing.*;
 import modele.Carte;
 import modele.Direction;
-import modele.Element;
 import modele.GestionnaireDeLevels;
-import modele.Lecture;
-import modele.Position;
+import modele.Robot;
+import modele.solveur.PlanificateurDePoussees;
+import modele.solveur.ServiceIndices;
+import modele.solveur.StatutRecherche;
 
 /**
  * La classe VueSokoban gère l'affichage graphique et les interactions utilisateur
  * pour le jeu Sokoban. Elle affiche une carte, gère les mouvements du robot,
- * et permet de charger ou de redémarrer les niveaux.
+ * et permet de charger ou de redémarrer les niveaux. La carte est placée dans une
+ * zone de défilement qui suit le robot, et seules les cases visibles sont dessinées.
+ * Un clic sur une case y conduit le robot par le plus court chemin, et une caisse glissée
+ * jusqu'à une case y est poussée automatiquement, le chemin étant cherché hors de l'EDT.
+ * La touche H affiche le prochain mouvement conseillé, cherché en arrière-plan pendant que le joueur réfléchit.
  */
 public class VueSokoban extends JPanel implements KeyListener {
 
     /** Carte actuelle affichée dans le jeu. */
     private Carte carte;
 
-    /** Map associant les caractères/symboles des éléments aux images correspondantes. */
-    private final Map<Character, BufferedImage> images;
+    /** Atlas des images des cases, null si les images n'ont pas pu être chargées. */
+    private AtlasDeTuiles atlas;
 
-    /** Taille d'une case (en pixels) dans la vue graphique. */
-    private final int tailleCase = 32;
+    /** Niveau de zoom courant de l'atlas. */
+    private int niveauZoom = AtlasDeTuiles.ZOOM_PAR_DEFAUT;
+
+    /** Taille d'une case (en pixels) dans la vue graphique, selon le niveau de zoom. */
+    private int tailleCase = AtlasDeTuiles.getTaille(niveauZoom);
 
     /** Gestionnaire des niveaux pour naviguer entre les niveaux. */
     private final GestionnaireDeLevels gestionnaireDeLevels;
@@ -45,6 +53,39 @@ public class VueSokoban extends JPanel implements KeyListener {
     /** Panneau servant à afficher graphiquement la carte du jeu. */
     private JPanel gamePanel;
 
+    /** Zone de défilement contenant le panneau de jeu, pour les cartes plus grandes que l'écran. */
+    private final JScrollPane defilement;
+
+    /** Nombre de cases gardées visibles autour du robot lorsque la vue le suit. */
+    private static final int MARGE_SUIVI_ROBOT = 3;
+
+    /** Part maximale de l'écran occupée par la vue, en pourcentage. */
+    private static final int POURCENTAGE_MAX_ECRAN = 90;
+
+    /** Nombre maximal de pixels de l'image du terrain mise en cache (64 Mo en couleurs 32 bits). */
+    private static final int PIXELS_MAX_TERRAIN_EN_CACHE = 1 << 24;
+
+    /**
+     * Image du terrain statique (sols, destinations et murs) du niveau, dessinée une seule fois.
+     * Null tant qu'elle n'est pas construite, ou si la carte est trop grande pour être mise en cache.
+     */
+    private BufferedImage terrainEnCache;
+
+    /** Recherche en cours du chemin de poussées d'une caisse glissée, ou null. */
+    private SwingWorker<List<Direction>, Void> planification;
+
+    /** Coordonnée X de la caisse saisie à la souris, ou -1 si aucune caisse n'est saisie. */
+    private int xCaisseSaisie = -1;
+
+    /** Coordonnée Y de la caisse saisie à la souris. */
+    private int yCaisseSaisie;
+
+    /** Durée maximale de la recherche d'un indice, en millisecondes. */
+    private static final long LIMITE_TEMPS_INDICE = 3000;
+
+    /** Recherche en arrière-plan des indices, relancée à chaque changement de position. */
+    private final ServiceIndices indices = new ServiceIndices(LIMITE_TEMPS_INDICE);
+
     /**
      * Retourne le panneau de jeu (gamePanel).
      *
@@ -63,10 +104,20 @@ public class VueSokoban extends JPanel implements KeyListener {
      * @param parent La fenêtre contenant cette vue.
      */
     public VueSokoban(Carte carte, JFrame parent) {
+        this(carte, parent, new GestionnaireDeLevels());
+    }
+
+    /**
+     * Constructeur de VueSokoban partageant le gestionnaire de niveaux de la fenêtre.
+     *
+     * @param carte La carte à afficher initialement.
+     * @param parent La fenêtre contenant cette vue.
+     * @param gestionnaireDeLevels Le gestionnaire des niveaux joués.
+     */
+    public VueSokoban(Carte carte, JFrame parent, GestionnaireDeLevels gestionnaireDeLevels) {
         this.carte = carte;
         this.parent = parent;
-        this.images = new HashMap<>();
-        this.gestionnaireDeLevels = new GestionnaireDeLevels();
+        this.gestionnaireDeLevels = gestionnaireDeLevels;
         chargerImages();
 
         setLayout(new BorderLayout());
@@ -80,12 +131,46 @@ public class VueSokoban extends JPanel implements KeyListener {
 
             @Override
             public Dimension getPreferredSize() {
-                return new Dimension(carte.getLargeur() * tailleCase, carte.getHauteur() * tailleCase);
+                return new Dimension(VueSokoban.this.carte.getLargeur() * tailleCase,
+                        VueSokoban.this.carte.getHauteur() * tailleCase);
             }
         };
 
         gamePanel.addKeyListener(this);
         gamePanel.setFocusable(true);
+        gamePanel.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                gamePanel.requestFocusInWindow();
+                if (!SwingUtilities.isLeftMouseButton(e)) {
+                    return;
+                }
+                int x = e.getX() / tailleCase;
+                int y = e.getY() / tailleCase;
+                if (VueSokoban.this.carte.estCaisse(x, y)) {
+                    xCaisseSaisie = x;
+                    yCaisseSaisie = y;
+                    gamePanel.setCursor(Cursor.getPredefinedCursor(Cursor.MOVE_CURSOR));
+                } else {
+                    marcherVers(x, y);
+                }
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                if (xCaisseSaisie < 0) {
+                    return;
+                }
+                int x = e.getX() / tailleCase;
+                int y = e.getY() / tailleCase;
+                int xCaisse = xCaisseSaisie;
+                xCaisseSaisie = -1;
+                gamePanel.setCursor(Cursor.getDefaultCursor());
+                if (x != xCaisse || y != yCaisseSaisie) {
+                    pousserCaisseVers(xCaisse, yCaisseSaisie, x, y);
+                }
+            }
+        });
 
         restartButton = new JButton("Recommencer");
         restartButton.addActionListener(e -> {
@@ -93,63 +178,290 @@ public class VueSokoban extends JPanel implements KeyListener {
             gamePanel.requestFocusInWindow();
         });
 
-        add(gamePanel, BorderLayout.CENTER);
+        // Les flèches déplacent le robot : la zone de défilement ne doit pas les utiliser pour défiler.
+        defilement = new JScrollPane(gamePanel);
+        defilement.setInputMap(JComponent.WHEN_ANCESTOR_OF_FOCUSED_COMPONENT, new InputMap());
+        defilement.getVerticalScrollBar().setUnitIncrement(tailleCase);
+        defilement.getHorizontalScrollBar().setUnitIncrement(tailleCase);
+
+        add(defilement, BorderLayout.CENTER);
         add(restartButton, BorderLayout.SOUTH);
+        mettreAJourTitre();
+    }
+
+    /**
+     * Affiche la progression du niveau (caisses placées et mouvements)
+     * dans le titre de la fenêtre, ainsi qu'un avertissement si une caisse est bloquée.
+     * Cette méthode est appelée après chaque changement de position : elle relance aussi
+     * la recherche d'indice pour la nouvelle position.
+     */
+    private void mettreAJourTitre() {
+        indices.positionChangee(carte);
+        if (parent != null) {
+            String titre = "Sokoban - Caisses placées : " + carte.getNbCaissesPlacees() + "/"
+                    + carte.getNbDestinations() + " - Mouvements : " + carte.getNbMouvements();
+            if (carte.estEnImpasse()) {
+                titre += " - Caisse bloquée, appuyez sur R pour recommencer";
+            }
+            parent.setTitle(titre);
+        }
+    }
+
+    /**
+     * Affiche dans le titre de la fenêtre le prochain mouvement conseillé, s'il est déjà connu,
+     * ou l'état de sa recherche. Ne bloque jamais.
+     */
+    private void afficherIndice() {
+        Direction direction = indices.getIndice(carte);
+        StatutRecherche statut = indices.getStatut(carte);
+        String texte;
+        if (direction != null) {
+            texte = "Indice : " + switch (direction) {
+                case HAUT -> "haut";
+                case BAS -> "bas";
+                case GAUCHE -> "gauche";
+                case DROITE -> "droite";
+            };
+        } else if (statut == StatutRecherche.INSOLUBLE) {
+            texte = "Indice : plus de solution depuis cette position, annulez avec U";
+        } else if (statut == StatutRecherche.LIMITE_ATTEINTE) {
+            texte = "Indice : aucune solution trouvée à temps";
+        } else {
+            texte = "Indice : recherche en cours, réessayez dans un instant";
+        }
+        if (parent != null) {
+            parent.setTitle("Sokoban - " + texte);
+        }
     }
 
     /**
      * Redémarre le niveau actuel.
      */
     public void reinitialiserNiveau() {
-        String currentLevel = gestionnaireDeLevels.getNiveauCourant();
-        Lecture lecture = new Lecture(currentLevel);
-        if (lecture.getNbLignes() > 0) {
-            setCarte(new Carte(lecture.getLignes()));
+        Carte carte = gestionnaireDeLevels.creerCarteNiveauCourant();
+        if (carte != null) {
+            setCarte(carte);
+        }
+    }
+
+    /**
+     * Demande le redessin des seules cases modifiées par le dernier mouvement,
+     * au lieu de tout le panneau.
+     */
+    private void redessinerCasesModifiees() {
+        for (int k = 0; k < carte.getNbCasesModifiees(); k++) {
+            gamePanel.repaint(carte.getXCaseModifiee(k) * tailleCase,
+                    carte.getYCaseModifiee(k) * tailleCase, tailleCase, tailleCase);
+        }
+    }
+
+    /**
+     * Conduit le robot jusqu'à une case cliquée, puis redessine une seule fois
+     * sa case de départ et sa case d'arrivée.
+     *
+     * @param x Coordonnée X de la case cliquée.
+     * @param y Coordonnée Y de la case cliquée.
+     */
+    private void marcherVers(int x, int y) {
+        annulerPlanification();
+        if (carte.marcherVers(x, y) > 0) {
+            mettreAJourTitre();
+            redessinerCasesModifiees();
+            suivreRobot();
+        }
+    }
+
+    /**
+     * Cherche en arrière-plan comment pousser une caisse jusqu'à une case, puis joue
+     * tous les mouvements trouvés d'un coup, avec un seul redessin. La recherche travaille
+     * sur une copie du plateau et est abandonnée si le joueur bouge ou change de niveau entre-temps.
+     *
+     * @param xCaisse Coordonnée X de la caisse.
+     * @param yCaisse Coordonnée Y de la caisse.
+     * @param xCible Coordonnée X de la case visée.
+     * @param yCible Coordonnée Y de la case visée.
+     */
+    private void pousserCaisseVers(int xCaisse, int yCaisse, int xCible, int yCible) {
+        annulerPlanification();
+        PlanificateurDePoussees planificateur = new PlanificateurDePoussees(carte);
+        gamePanel.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        planification = new SwingWorker<>() {
+            @Override
+            protected List<Direction> doInBackground() {
+                return planificateur.planifier(xCaisse, yCaisse, xCible, yCible);
+            }
+
+            @Override
+            protected void done() {
+                if (planification != this) {
+                    return; // Recherche abandonnée ou remplacée.
+                }
+                planification = null;
+                gamePanel.setCursor(Cursor.getDefaultCursor());
+                List<Direction> mouvements;
+                try {
+                    mouvements = get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    System.err.println("Erreur pendant la recherche des poussées : " + e.getCause());
+                    return;
+                }
+                if (mouvements == null) {
+                    Toolkit.getDefaultToolkit().beep();
+                    return;
+                }
+                for (Direction direction : mouvements) {
+                    carte.deplacerRobot(direction);
+                }
+                mettreAJourTitre();
+                gamePanel.repaint();
+                suivreRobot();
+                verifierFinDePartie();
+            }
+        };
+        planification.execute();
+    }
+
+    /**
+     * Abandonne la recherche de poussées en cours, s'il y en a une.
+     */
+    private void annulerPlanification() {
+        if (planification != null) {
+            planification.cancel(true);
+            planification = null;
+            gamePanel.setCursor(Cursor.getDefaultCursor());
         }
     }
 
     /**
      * Dessine la carte actuelle sur le panneau graphique.
+     * Seules les cases qui coupent la zone de découpage du contexte graphique sont dessinées.
      *
      * @param g L'objet Graphics utilisé pour dessiner.
      */
-    private void dessinerCarte(Graphics g) {
-        for (int i = 0; i < carte.getHauteur(); i++) {
-            for (int j = 0; j < carte.getLargeur(); j++) {
-                Element element = carte.getElement(j, i);
-
-                char baseSymbole = ' ';
-                for (Position dest : carte.getDestinations()) {
-                    if (dest.x == j && dest.y == i) {
-                        baseSymbole = '.';
-                        break;
-                    }
-                }
+    void dessinerCarte(Graphics g) {
+        Rectangle zone = g.getClipBounds();
+        int premiereLigne = 0;
+        int derniereLigne = carte.getHauteur() - 1;
+        int premiereColonne = 0;
+        int derniereColonne = carte.getLargeur() - 1;
+        if (zone != null) {
+            premiereLigne = Math.max(premiereLigne, zone.y / tailleCase);
+            derniereLigne = Math.min(derniereLigne, (zone.y + zone.height - 1) / tailleCase);
+            premiereColonne = Math.max(premiereColonne, zone.x / tailleCase);
+            derniereColonne = Math.min(derniereColonne, (zone.x + zone.width - 1) / tailleCase);
+        }
 
-                BufferedImage baseImage = images.get(baseSymbole);
-                if (baseImage != null) {
-                    g.drawImage(baseImage, j * tailleCase, i * tailleCase, tailleCase, tailleCase, null);
+        BufferedImage terrain = getTerrainEnCache();
+        if (terrain != null) {
+            // Le contexte graphique ne recopie que la partie de l'image comprise dans la zone de découpage.
+            g.drawImage(terrain, 0, 0, null);
+        }
+        if (terrain == null) {
+            for (int i = premiereLigne; i <= derniereLigne; i++) {
+                for (int j = premiereColonne; j <= derniereColonne; j++) {
+                    dessinerTerrain(g, j, i);
                 }
+            }
+        }
+        // Seules les caisses sont parcourues, ligne par ligne dans la zone de découpage.
+        int largeur = carte.getLargeur();
+        for (int i = premiereLigne; i <= derniereLigne; i++) {
+            int fin = i * largeur + derniereColonne;
+            for (int c = carte.getCaisseSuivante(i * largeur + premiereColonne); c >= 0 && c <= fin;
+                    c = carte.getCaisseSuivante(c + 1)) {
+                int j = c - i * largeur;
+                dessinerCase(g, carte.estDestination(j, i)
+                        ? AtlasDeTuiles.TUILE_CAISSE_PLACEE : AtlasDeTuiles.TUILE_CAISSE, j, i);
+            }
+        }
 
-                BufferedImage elementImage = images.get(element.getSymbole());
-                if (elementImage != null && element.getSymbole() != ' ' && element.getSymbole() != '.') {
-                    g.drawImage(elementImage, j * tailleCase, i * tailleCase, tailleCase, tailleCase, null);
-                }
+        Robot robot = carte.getRobot();
+        if (robot != null && robot.getY() >= premiereLigne && robot.getY() <= derniereLigne
+                && robot.getX() >= premiereColonne && robot.getX() <= derniereColonne) {
+            dessinerCase(g, AtlasDeTuiles.TUILE_ROBOT + robot.getDirection().ordinal(), robot.getX(), robot.getY());
+        }
+    }
+
+    /**
+     * Dessine le terrain statique d'une case : le sol ou la destination, puis le mur éventuel.
+     *
+     * @param g L'objet Graphics utilisé pour dessiner.
+     * @param x Coordonnée X de la case.
+     * @param y Coordonnée Y de la case.
+     */
+    private void dessinerTerrain(Graphics g, int x, int y) {
+        dessinerCase(g, carte.estDestination(x, y) ? AtlasDeTuiles.TUILE_DESTINATION : AtlasDeTuiles.TUILE_SOL, x, y);
+        if (carte.getTerrain(x, y) == Carte.TERRAIN_MUR) {
+            dessinerCase(g, AtlasDeTuiles.TUILE_MUR, x, y);
+        }
+    }
+
+    /**
+     * Dessine une tuile de l'atlas à l'emplacement d'une case, au niveau de zoom courant.
+     *
+     * @param g L'objet Graphics utilisé pour dessiner.
+     * @param tuile L'identifiant de la tuile dans l'atlas.
+     * @param x Coordonnée X de la case.
+     * @param y Coordonnée Y de la case.
+     */
+    private void dessinerCase(Graphics g, int tuile, int x, int y) {
+        if (atlas != null) {
+            atlas.dessiner(g, tuile, niveauZoom, x, y);
+        }
+    }
+
+    /**
+     * Change le niveau de zoom de la vue et ajuste la taille de la fenêtre.
+     * Le terrain mis en cache est redessiné à la nouvelle taille.
+     *
+     * @param variation +1 pour agrandir les cases, -1 pour les réduire.
+     */
+    private void zoomer(int variation) {
+        int niveau = niveauZoom + variation;
+        if (niveau < 0 || niveau >= AtlasDeTuiles.getNbNiveauxZoom()) {
+            return;
+        }
+        niveauZoom = niveau;
+        tailleCase = AtlasDeTuiles.getTaille(niveau);
+        terrainEnCache = null;
+        defilement.getVerticalScrollBar().setUnitIncrement(tailleCase);
+        defilement.getHorizontalScrollBar().setUnitIncrement(tailleCase);
+        gamePanel.revalidate();
+        if (parent != null) {
+            parent.pack();
+        }
+        suivreRobot();
+        repaint();
+    }
 
-                if (element == carte.getRobot()) {
-                    char dirChar = switch (carte.getRobot().getDirection()) {
-                        case HAUT -> 'h';
-                        case BAS -> 'b';
-                        case GAUCHE -> 'g';
-                        case DROITE -> 'd';
-                    };
-                    BufferedImage robotImage = images.get(dirChar);
-                    if (robotImage != null) {
-                        g.drawImage(robotImage, j * tailleCase, i * tailleCase, tailleCase, tailleCase, null);
-                    }
+    /**
+     * Retourne l'image du terrain statique du niveau, en la construisant au premier appel.
+     * L'image est compatible avec l'écran du panneau lorsqu'il est affiché, pour être recopiée
+     * sans conversion. Elle n'est pas construite si elle dépasse {@link #PIXELS_MAX_TERRAIN_EN_CACHE}.
+     *
+     * @return L'image du terrain, ou null si la carte est trop grande pour être mise en cache.
+     */
+    private BufferedImage getTerrainEnCache() {
+        int largeur = carte.getLargeur() * tailleCase;
+        int hauteur = carte.getHauteur() * tailleCase;
+        if (terrainEnCache == null && (long) largeur * hauteur <= PIXELS_MAX_TERRAIN_EN_CACHE
+                && largeur > 0 && hauteur > 0) {
+            GraphicsConfiguration configuration = gamePanel.getGraphicsConfiguration();
+            terrainEnCache = configuration != null
+                    ? configuration.createCompatibleImage(largeur, hauteur)
+                    : new BufferedImage(largeur, hauteur, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = terrainEnCache.createGraphics();
+            for (int i = 0; i < carte.getHauteur(); i++) {
+                for (int j = 0; j < carte.getLargeur(); j++) {
+                    dessinerTerrain(g, j, i);
                 }
             }
+            g.dispose();
         }
+        return terrainEnCache;
     }
 
     /**
@@ -159,7 +471,25 @@ public class VueSokoban extends JPanel implements KeyListener {
      */
     @Override
     public Dimension getPreferredSize() {
-        return new Dimension(carte.getLargeur() * tailleCase, carte.getHauteur() * tailleCase + 40);
+        Dimension taille = new Dimension(carte.getLargeur() * tailleCase, carte.getHauteur() * tailleCase + 40);
+        if (!GraphicsEnvironment.isHeadless()) {
+            Rectangle ecran = GraphicsEnvironment.getLocalGraphicsEnvironment().getMaximumWindowBounds();
+            taille.width = Math.min(taille.width, ecran.width * POURCENTAGE_MAX_ECRAN / 100);
+            taille.height = Math.min(taille.height, ecran.height * POURCENTAGE_MAX_ECRAN / 100);
+        }
+        return taille;
+    }
+
+    /**
+     * Fait défiler la vue pour garder le robot visible, avec quelques cases autour de lui.
+     */
+    private void suivreRobot() {
+        Robot robot = carte.getRobot();
+        if (robot != null) {
+            int cote = (2 * MARGE_SUIVI_ROBOT + 1) * tailleCase;
+            gamePanel.scrollRectToVisible(new Rectangle((robot.getX() - MARGE_SUIVI_ROBOT) * tailleCase,
+                    (robot.getY() - MARGE_SUIVI_ROBOT) * tailleCase, cote, cote));
+        }
     }
 
     /**
@@ -168,30 +498,25 @@ public class VueSokoban extends JPanel implements KeyListener {
      * @param carte La nouvelle carte à afficher.
      */
     public void setCarte(Carte carte) {
+        annulerPlanification();
         this.carte = carte;
+        terrainEnCache = null;
+        gamePanel.revalidate();
         if (parent != null) {
             parent.pack();
             parent.setLocationRelativeTo(null);
         }
+        suivreRobot();
+        mettreAJourTitre();
         repaint();
     }
 
     /**
-     * Charge toutes les images nécessaires pour les éléments et directions.
+     * Charge l'atlas des images des cases et des directions du robot.
      */
     private void chargerImages() {
         try {
-            images.put('#', ImageIO.read(new File("./src/images/mur.gif")));
-            images.put('/', ImageIO.read(new File("./src/images/sol.gif")));
-            images.put(' ', ImageIO.read(new File("./src/images/sol.gif")));
-            images.put('.', ImageIO.read(new File("./src/images/but.gif")));
-            images.put('$', ImageIO.read(new File("./src/images/caisse1.gif")));
-            images.put('*', ImageIO.read(new File("./src/images/caisse2.gif")));
-            images.put('@', ImageIO.read(new File("./src/images/Bas.gif")));
-            images.put('h', ImageIO.read(new File("./src/images/Haut.gif")));
-            images.put('b', ImageIO.read(new File("./src/images/Bas.gif")));
-            images.put('g', ImageIO.read(new File("./src/images/Gauche.gif")));
-            images.put('d', ImageIO.read(new File("./src/images/Droite.gif")));
+            atlas = new AtlasDeTuiles();
         } catch (IOException e) {
             JOptionPane.showMessageDialog(this, "Erreur lors du chargement des images.", "Erreur", JOptionPane.ERROR_MESSAGE);
         }
@@ -203,10 +528,9 @@ public class VueSokoban extends JPanel implements KeyListener {
      */
     private void chargerNiveauSuivant() {
         if (gestionnaireDeLevels.passerAuNiveauSuivant()) {
-            String cheminCarte = gestionnaireDeLevels.getNiveauCourant();
-            Lecture lecture = new Lecture(cheminCarte);
-            if (lecture.getNbLignes() > 0) {
-                setCarte(new Carte(lecture.getLignes()));
+            Carte carte = gestionnaireDeLevels.creerCarteNiveauCourant();
+            if (carte != null) {
+                setCarte(carte);
             } else {
                 JOptionPane.showMessageDialog(this, "Erreur lors du chargement du niveau suivant.");
             }
@@ -229,6 +553,7 @@ public class VueSokoban extends JPanel implements KeyListener {
      */
     @Override
     public void keyPressed(KeyEvent e) {
+        annulerPlanification();
         Direction direction = switch (e.getKeyCode()) {
             case KeyEvent.VK_UP -> Direction.HAUT;
             case KeyEvent.VK_DOWN -> Direction.BAS;
@@ -238,21 +563,51 @@ public class VueSokoban extends JPanel implements KeyListener {
                 reinitialiserNiveau();
                 yield null;
             }
+            case KeyEvent.VK_H -> {
+                afficherIndice();
+                yield null;
+            }
+            case KeyEvent.VK_ADD, KeyEvent.VK_PLUS, KeyEvent.VK_EQUALS -> {
+                zoomer(1);
+                yield null;
+            }
+            case KeyEvent.VK_SUBTRACT, KeyEvent.VK_MINUS -> {
+                zoomer(-1);
+                yield null;
+            }
+            case KeyEvent.VK_U -> {
+                if (carte.annuler()) {
+                    mettreAJourTitre();
+                    redessinerCasesModifiees();
+                    suivreRobot();
+                }
+                yield null;
+            }
             default -> null;
         };
 
-        if (direction != null) {
-            carte.deplacerRobot(direction);
-            repaint();
-            if (carte.finDePartie()) {
-                JOptionPane.showMessageDialog(this, "Bravo, vous avez gagné avec " + carte.getNbMouvements() + " mouvements !");
-                int reponse = JOptionPane.showConfirmDialog(this,
-                        "Voulez-vous passer au niveau suivant ?",
-                        "Niveau terminé", JOptionPane.YES_NO_OPTION);
-
-                if (reponse == JOptionPane.YES_OPTION) {
-                    chargerNiveauSuivant();
-                }
+        boolean joue = direction != null ? carte.deplacerRobot(direction)
+                : e.getKeyCode() == KeyEvent.VK_Y && carte.refaire();
+        if (joue) {
+            mettreAJourTitre();
+            redessinerCasesModifiees();
+            suivreRobot();
+            verifierFinDePartie();
+        }
+    }
+
+    /**
+     * Félicite le joueur si le niveau est terminé et propose de passer au niveau suivant.
+     */
+    private void verifierFinDePartie() {
+        if (carte.finDePartie()) {
+            JOptionPane.showMessageDialog(this, "Bravo, vous avez gagné avec " + carte.getNbMouvements() + " mouvements !");
+            int reponse = JOptionPane.showConfirmDialog(this,
+                    "Voulez-vous passer au niveau suivant ?",
+                    "Niveau terminé", JOptionPane.YES_NO_OPTION);
+
+            if (reponse == JOptionPane.YES_OPTION) {
+                chargerNiveauSuivant();
             }
         }
     }
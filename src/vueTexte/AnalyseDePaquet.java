@@ -0,0 +1,329 @@
+package vueTexte;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import modele.Carte;
+import modele.Direction;
+import modele.PaquetDeNiveaux;
+import modele.Robot;
+import modele.solveur.Solveur;
+import modele.solveur.StatistiquesRecherche;
+import modele.solveur.StatutRecherche;
+
+/**
+ * La classe AnalyseDePaquet mesure en mode console, sans interface, chaque niveau
+ * d'un ou plusieurs paquets, pour trier un paquet avant de le proposer aux joueurs.
+ * <p>
+ * Pour chaque niveau, elle donne la taille, le nombre de caisses, la surface accessible
+ * (cases que le robot peut atteindre si l'on ignore les caisses), le nombre de cases mortes
+ * de cette surface, puis le résultat du {@link Solveur} avec une limite de temps par niveau
+ * et une part égale du tas pour chaque thread :
+ * longueur de la solution en poussées et en mouvements, ou statut {@code LIMITE_ATTEINTE}.
+ * Un niveau sans robot, ou dont le nombre de caisses diffère du nombre de destinations,
+ * est signalé {@code INVALIDE} sans être résolu.
+ * <p>
+ * Les niveaux sont analysés en parallèle. Un nombre limité de niveaux est en cours à la fois,
+ * et les résultats sont écrits dans l'ordre du paquet dès qu'ils sont connus, en CSV
+ * (avec une ligne d'en-tête) ou en JSON (un objet par ligne). Un bilan est écrit sur
+ * la sortie d'erreur.
+ * <p>
+ * Utilisation : {@code java -cp bin vueTexte.AnalyseDePaquet [-threads N] [-temps ms]
+ * [-format csv|json] paquet.sok...}
+ */
+public class AnalyseDePaquet {
+
+    /**
+     * Noms des colonnes du rapport, dans l'ordre d'écriture.
+     */
+    private static final String[] COLONNES = {"paquet", "niveau", "largeur", "hauteur", "caisses",
+        "surface", "casesMortes", "statut", "poussees", "mouvements", "noeuds", "ms"};
+
+    /**
+     * Statut d'un niveau mal formé, qui n'est pas résolu.
+     */
+    private static final String INVALIDE = "INVALIDE";
+
+    /**
+     * Durée maximale de résolution d'un niveau en millisecondes.
+     */
+    private final long limiteTemps;
+
+    /**
+     * Mémoire maximale des structures d'une résolution en octets.
+     */
+    private final long limiteMemoire;
+
+    /**
+     * true pour écrire le rapport en JSON, false pour le CSV.
+     */
+    private final boolean json;
+
+    /**
+     * Constructeur d'une analyse.
+     *
+     * @param limiteTemps La durée maximale de résolution d'un niveau en millisecondes.
+     * @param limiteMemoire La mémoire maximale des structures d'une résolution en octets.
+     * @param json true pour écrire le rapport en JSON, false pour le CSV.
+     */
+    public AnalyseDePaquet(long limiteTemps, long limiteMemoire, boolean json) {
+        this.limiteTemps = limiteTemps;
+        this.limiteMemoire = limiteMemoire;
+        this.json = json;
+    }
+
+    /**
+     * Point d'entrée de l'analyse.
+     *
+     * @param args Options {@code -threads} (par défaut le nombre de processeurs), {@code -temps}
+     *             (limite par niveau en millisecondes, 10000 par défaut), {@code -format}
+     *             ({@code csv} par défaut, ou {@code json}), puis les chemins des paquets.
+     */
+    public static void main(String[] args) {
+        int nbThreads = Runtime.getRuntime().availableProcessors();
+        long limiteTemps = 10_000;
+        String format = "csv";
+        List<String> chemins = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-threads" -> nbThreads = Integer.parseInt(args[++i]);
+                case "-temps" -> limiteTemps = Long.parseLong(args[++i]);
+                case "-format" -> format = args[++i];
+                default -> chemins.add(args[i]);
+            }
+        }
+        if (chemins.isEmpty() || !(format.equals("csv") || format.equals("json"))) {
+            System.out.println("Utilisation : AnalyseDePaquet [-threads N] [-temps ms] [-format csv|json] paquet.sok...");
+            return;
+        }
+
+        PrintWriter sortie = new PrintWriter(new BufferedWriter(
+                new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16), false);
+        ExecutorService executeur = Executors.newFixedThreadPool(nbThreads);
+        try {
+            // Les résolutions simultanées se partagent le tas.
+            long limiteMemoire = Runtime.getRuntime().maxMemory() * 8 / 10 / nbThreads;
+            new AnalyseDePaquet(limiteTemps, limiteMemoire, format.equals("json"))
+                    .analyser(chemins, executeur, 2 * nbThreads, sortie);
+        } finally {
+            executeur.shutdownNow();
+            sortie.flush();
+        }
+    }
+
+    /**
+     * Analyse tous les niveaux de plusieurs paquets et écrit une ligne par niveau.
+     *
+     * @param chemins Les chemins des paquets.
+     * @param executeur Les threads d'analyse.
+     * @param niveauxEnCours Nombre maximal de niveaux lancés mais dont le résultat n'est pas encore écrit.
+     * @param sortie La sortie du rapport.
+     */
+    public void analyser(List<String> chemins, ExecutorService executeur, int niveauxEnCours, PrintWriter sortie) {
+        long debut = System.nanoTime();
+        Map<StatutRecherche, Long> bilan = new EnumMap<>(StatutRecherche.class);
+        long[] nbInvalides = new long[1];
+        ArrayDeque<Future<String[]>> enCours = new ArrayDeque<>();
+        if (!json) {
+            sortie.println(String.join(",", COLONNES));
+        }
+        for (String chemin : chemins) {
+            PaquetDeNiveaux paquet;
+            try {
+                paquet = new PaquetDeNiveaux(chemin);
+            } catch (IOException e) {
+                System.err.println("Erreur: Impossible d'ouvrir le paquet " + chemin + " : " + e.getMessage());
+                continue;
+            }
+            for (int n = 0; n < paquet.getNbNiveaux(); n++) {
+                if (enCours.size() >= niveauxEnCours) {
+                    ecrire(enCours.poll(), bilan, nbInvalides, sortie);
+                }
+                int numero = n;
+                enCours.add(executeur.submit(() -> analyserNiveau(paquet, numero)));
+            }
+        }
+        while (!enCours.isEmpty()) {
+            ecrire(enCours.poll(), bilan, nbInvalides, sortie);
+        }
+        sortie.flush();
+
+        long nbNiveaux = nbInvalides[0];
+        StringBuilder statuts = new StringBuilder();
+        for (Map.Entry<StatutRecherche, Long> entree : bilan.entrySet()) {
+            nbNiveaux += entree.getValue();
+            statuts.append(", ").append(entree.getKey()).append(": ").append(entree.getValue());
+        }
+        double secondes = (System.nanoTime() - debut) / 1e9;
+        System.err.printf("Niveaux: %d%s, %s: %d, %.2f s%n", nbNiveaux, statuts, INVALIDE, nbInvalides[0], secondes);
+    }
+
+    /**
+     * Attend la fin de l'analyse d'un niveau, l'écrit et le compte dans le bilan.
+     *
+     * @param resultat L'analyse en cours.
+     * @param bilan Le nombre de niveaux par statut de résolution.
+     * @param nbInvalides Le nombre de niveaux mal formés, dans une case unique.
+     * @param sortie La sortie du rapport.
+     */
+    private void ecrire(Future<String[]> resultat, Map<StatutRecherche, Long> bilan, long[] nbInvalides,
+            PrintWriter sortie) {
+        String[] valeurs;
+        try {
+            valeurs = resultat.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            System.err.println("Erreur pendant l'analyse : " + e.getCause());
+            return;
+        }
+        String statut = valeurs[7];
+        if (statut.equals(INVALIDE)) {
+            nbInvalides[0]++;
+        } else {
+            bilan.merge(StatutRecherche.valueOf(statut), 1L, Long::sum);
+        }
+        sortie.println(json ? versJson(valeurs) : versCsv(valeurs));
+    }
+
+    /**
+     * Mesure un niveau d'un paquet. Exécutée sur un thread d'analyse.
+     *
+     * @param paquet Le paquet.
+     * @param numero Le numéro du niveau, à partir de 0.
+     * @return Les valeurs des {@link #COLONNES}, sous forme de texte ; les colonnes de la solution
+     *         sont vides si le niveau n'est pas résolu.
+     */
+    private String[] analyserNiveau(PaquetDeNiveaux paquet, int numero) {
+        Carte carte = paquet.creerCarte(numero);
+        String[] valeurs = new String[COLONNES.length];
+        valeurs[0] = paquet.getChemin();
+        valeurs[1] = String.valueOf(numero + 1);
+        valeurs[2] = String.valueOf(carte.getLargeur());
+        valeurs[3] = String.valueOf(carte.getHauteur());
+        valeurs[4] = String.valueOf(carte.getNiveau().getNbCaisses());
+        int[] surface = mesurerSurface(carte);
+        valeurs[5] = String.valueOf(surface[0]);
+        valeurs[6] = String.valueOf(surface[1]);
+        for (int i = 8; i < valeurs.length; i++) {
+            valeurs[i] = "";
+        }
+        if (carte.getRobot() == null || carte.getNiveau().getNbCaisses() != carte.getNbDestinations()) {
+            valeurs[7] = INVALIDE;
+            return valeurs;
+        }
+
+        Solveur solveur = new Solveur();
+        solveur.setLimiteTemps(limiteTemps);
+        solveur.setLimiteMemoire(limiteMemoire);
+        List<Direction> solution = solveur.resoudre(carte);
+        StatistiquesRecherche stats = solveur.getStatistiques();
+        valeurs[7] = stats.getStatut().name();
+        if (solution != null) {
+            valeurs[8] = String.valueOf(stats.getNbPoussees());
+            valeurs[9] = String.valueOf(solution.size());
+        }
+        valeurs[10] = String.valueOf(stats.getNoeudsDeveloppes());
+        valeurs[11] = String.valueOf(stats.getDureeNanos() / 1_000_000);
+        return valeurs;
+    }
+
+    /**
+     * Parcourt les cases que le robot peut atteindre en ignorant les caisses,
+     * et compte parmi elles les cases mortes.
+     *
+     * @param carte La carte du niveau.
+     * @return La surface accessible et son nombre de cases mortes, ou deux zéros sans robot.
+     */
+    private static int[] mesurerSurface(Carte carte) {
+        Robot robot = carte.getRobot();
+        if (robot == null) {
+            return new int[2];
+        }
+        int largeur = carte.getLargeur();
+        int hauteur = carte.getHauteur();
+        boolean[] atteintes = new boolean[largeur * hauteur];
+        int[] file = new int[largeur * hauteur];
+        int fin = 0;
+        int mortes = 0;
+        file[fin++] = robot.getY() * largeur + robot.getX();
+        atteintes[file[0]] = true;
+        for (int debut = 0; debut < fin; debut++) {
+            int x = file[debut] % largeur;
+            int y = file[debut] / largeur;
+            if (carte.estCaseMorte(x, y)) {
+                mortes++;
+            }
+            for (Direction d : Direction.values()) {
+                int vx = x + d.getDx();
+                int vy = y + d.getDy();
+                if (vx < 0 || vy < 0 || vx >= largeur || vy >= hauteur
+                        || atteintes[vy * largeur + vx] || carte.getTerrain(vx, vy) == Carte.TERRAIN_MUR) {
+                    continue;
+                }
+                atteintes[vy * largeur + vx] = true;
+                file[fin++] = vy * largeur + vx;
+            }
+        }
+        return new int[] {fin, mortes};
+    }
+
+    /**
+     * Écrit une ligne CSV. Le chemin du paquet est entre guillemets s'il contient
+     * une virgule ou un guillemet.
+     *
+     * @param valeurs Les valeurs des colonnes.
+     * @return La ligne CSV.
+     */
+    private static String versCsv(String[] valeurs) {
+        StringBuilder ligne = new StringBuilder();
+        for (int i = 0; i < valeurs.length; i++) {
+            if (i > 0) {
+                ligne.append(',');
+            }
+            String valeur = valeurs[i];
+            if (valeur.indexOf(',') >= 0 || valeur.indexOf('"') >= 0) {
+                ligne.append('"').append(valeur.replace("\"", "\"\"")).append('"');
+            } else {
+                ligne.append(valeur);
+            }
+        }
+        return ligne.toString();
+    }
+
+    /**
+     * Écrit un objet JSON sur une ligne. Le paquet et le statut sont des chaînes,
+     * les autres colonnes des nombres, ou null si elles sont vides.
+     *
+     * @param valeurs Les valeurs des colonnes.
+     * @return L'objet JSON.
+     */
+    private static String versJson(String[] valeurs) {
+        StringBuilder ligne = new StringBuilder("{");
+        for (int i = 0; i < valeurs.length; i++) {
+            if (i > 0) {
+                ligne.append(',');
+            }
+            ligne.append('"').append(COLONNES[i]).append("\":");
+            String valeur = valeurs[i];
+            if (i == 0 || i == 7) {
+                ligne.append('"').append(valeur.replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+            } else {
+                ligne.append(valeur.isEmpty() ? "null" : valeur);
+            }
+        }
+        return ligne.append('}').toString();
+    }
+}
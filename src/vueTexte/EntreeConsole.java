@@ -0,0 +1,173 @@
+package vueTexte;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * La classe EntreeConsole lit le clavier de la console sur un thread dédié et fournit
+ * les touches saisies, une par une, à travers une file de commandes.
+ * <p>
+ * L'entrée est lue par blocs : une rafale de touches (par exemple {@code zzqd} suivi d'Entrée)
+ * est récupérée en une seule lecture et donne quatre commandes. Les blancs et les fins de
+ * ligne sont ignorés. En mode brut, le terminal est passé par {@code stty} en mode non canonique
+ * et sans écho : chaque touche est transmise sans attendre Entrée. Les réglages du terminal
+ * sont restaurés par {@link #fermer()} ou à l'arrêt du programme.
+ */
+public class EntreeConsole {
+
+    /**
+     * Commande fournie lorsque l'entrée est terminée (fin de fichier ou erreur de lecture).
+     */
+    public static final char FIN_ENTREE = '\uffff';
+
+    /**
+     * Taille du tampon de lecture et de la file des commandes.
+     */
+    private static final int TAILLE_TAMPON = 4096;
+
+    /**
+     * Flux d'entrée lu par le thread de lecture.
+     */
+    private final InputStream entree;
+
+    /**
+     * File des touches lues et pas encore consommées.
+     */
+    private final BlockingQueue<Character> commandes = new ArrayBlockingQueue<>(TAILLE_TAMPON);
+
+    /**
+     * Réglages du terminal avant le passage en mode brut, ou null si le terminal n'a pas été modifié.
+     */
+    private String reglagesInitiaux;
+
+    /**
+     * Crée une entrée sur un flux et démarre son thread de lecture.
+     *
+     * @param entree Le flux à lire, en général {@code System.in}.
+     * @param modeBrut true pour essayer de lire les touches sans attendre Entrée.
+     */
+    public EntreeConsole(InputStream entree, boolean modeBrut) {
+        this.entree = entree;
+        if (modeBrut) {
+            passerEnModeBrut();
+        }
+        // Java 17 n'a pas de threads virtuels : un thread démon classique suffit pour un seul lecteur.
+        Thread lecteur = new Thread(this::lire, "entree-console");
+        lecteur.setDaemon(true);
+        lecteur.start();
+    }
+
+    /**
+     * Lit le flux par blocs et place chaque touche significative dans la file,
+     * puis {@link #FIN_ENTREE} lorsque le flux est terminé.
+     */
+    private void lire() {
+        byte[] tampon = new byte[TAILLE_TAMPON];
+        try {
+            int lus;
+            while ((lus = entree.read(tampon)) > 0) {
+                for (int i = 0; i < lus; i++) {
+                    char touche = (char) (tampon[i] & 0xff);
+                    if (!Character.isWhitespace(touche)) {
+                        commandes.put(touche);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Erreur de lecture du clavier : " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        commandes.offer(FIN_ENTREE);
+    }
+
+    /**
+     * Retourne la prochaine touche saisie, en attendant si aucune n'est disponible.
+     *
+     * @return La touche, ou {@link #FIN_ENTREE} si l'entrée est terminée.
+     */
+    public char lireCommande() {
+        try {
+            char touche = commandes.take();
+            if (touche == FIN_ENTREE) {
+                // Laisse la fin d'entrée dans la file pour les lectures suivantes.
+                commandes.offer(FIN_ENTREE);
+            }
+            return touche;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return FIN_ENTREE;
+        }
+    }
+
+    /**
+     * Indique si des touches ont déjà été saisies et attendent d'être consommées.
+     *
+     * @return true si la file des commandes n'est pas vide.
+     */
+    public boolean aDesCommandesEnAttente() {
+        Character touche = commandes.peek();
+        return touche != null && touche != FIN_ENTREE;
+    }
+
+    /**
+     * Oublie les touches saisies en avance, par exemple avant de poser une question.
+     */
+    public void viderCommandes() {
+        commandes.removeIf(touche -> touche != FIN_ENTREE);
+    }
+
+    /**
+     * Restaure les réglages du terminal s'il a été passé en mode brut.
+     */
+    public synchronized void fermer() {
+        if (reglagesInitiaux != null) {
+            stty(reglagesInitiaux);
+            reglagesInitiaux = null;
+        }
+    }
+
+    /**
+     * Passe le terminal en mode non canonique sans écho, si la console est un terminal
+     * et si {@code stty} est disponible. En cas d'échec, la saisie reste ligne par ligne.
+     */
+    private void passerEnModeBrut() {
+        if (System.console() == null || System.getProperty("os.name").startsWith("Windows")) {
+            return;
+        }
+        String reglages = stty("-g");
+        if (reglages != null && stty("-icanon", "-echo", "min", "1") != null) {
+            reglagesInitiaux = reglages.trim();
+            Runtime.getRuntime().addShutdownHook(new Thread(this::fermer));
+        }
+    }
+
+    /**
+     * Exécute {@code stty} sur le terminal du programme.
+     *
+     * @param arguments Les arguments de {@code stty}.
+     * @return La sortie de la commande, ou null si elle a échoué.
+     */
+    private static String stty(String... arguments) {
+        String[] commande = new String[arguments.length + 1];
+        commande[0] = "stty";
+        System.arraycopy(arguments, 0, commande, 1, arguments.length);
+        try {
+            Process processus = new ProcessBuilder(commande)
+                    .redirectInput(new File("/dev/tty"))
+                    .redirectError(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            String sortie = new String(processus.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            return processus.waitFor() == 0 ? sortie : null;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
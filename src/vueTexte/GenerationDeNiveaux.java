@@ -0,0 +1,294 @@
+package vueTexte;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import modele.GenerateurDeNiveaux;
+import modele.Niveau;
+import modele.solveur.Solveur;
+import modele.solveur.StatistiquesRecherche;
+import modele.solveur.StatutRecherche;
+
+/**
+ * La classe GenerationDeNiveaux produit en mode console, sans interface, un paquet
+ * de niveaux aléatoires lisible par {@link modele.PaquetDeNiveaux}.
+ * <p>
+ * Chaque niveau du paquet est choisi parmi plusieurs essais du {@link GenerateurDeNiveaux}.
+ * Chaque essai est résolu par le {@link Solveur} avec une limite de nœuds : seuls les essais
+ * résolus sont retenus, et le plus difficile l'emporte. La difficulté est le nombre minimal
+ * de poussées, pondéré par le travail du solveur : {@code poussées × log10(10 + nœuds)}.
+ * <p>
+ * Les niveaux sont générés en parallèle. Chaque tentative de niveau reçoit sa propre graine :
+ * la tentative t (à partir de 0) utilise {@code graine + t}, qu'elle soit retenue ou non.
+ * Une tentative dont aucun essai n'a été résolu est écartée et la suivante prend sa place :
+ * le niveau n du paquet ne vient donc pas forcément de la graine {@code graine + n - 1}.
+ * La graine de chaque niveau est écrite dans son commentaire ; {@code -graine} avec cette
+ * valeur et un nombre de 1 reproduit ce niveau seul, avec les mêmes options.
+ * <p>
+ * La limite étant un nombre de nœuds et non une durée, le paquet obtenu ne dépend ni
+ * du nombre de threads ni de la charge de la machine. Un nombre limité de niveaux est
+ * en cours à la fois, et chacun est écrit dans l'ordre dès qu'il est terminé.
+ * <p>
+ * Utilisation : {@code java -cp bin vueTexte.GenerationDeNiveaux [-threads N] [-graine S]
+ * [-essais K] [-noeuds N] largeur hauteur caisses nombre sortie.sok}
+ * <br>Le chemin {@code -} désigne la sortie standard.
+ */
+public class GenerationDeNiveaux {
+
+    /**
+     * Générateur partagé entre les threads.
+     */
+    private final GenerateurDeNiveaux generateur;
+
+    /**
+     * Nombre d'essais par niveau.
+     */
+    private final int nbEssais;
+
+    /**
+     * Nombre maximal de nœuds développés pour résoudre un essai.
+     */
+    private final long limiteNoeuds;
+
+    /**
+     * Constructeur d'une génération de paquet.
+     *
+     * @param generateur Le générateur des essais.
+     * @param nbEssais Le nombre d'essais par niveau.
+     * @param limiteNoeuds Le nombre maximal de nœuds développés pour résoudre un essai.
+     */
+    public GenerationDeNiveaux(GenerateurDeNiveaux generateur, int nbEssais, long limiteNoeuds) {
+        this.generateur = generateur;
+        this.nbEssais = nbEssais;
+        this.limiteNoeuds = limiteNoeuds;
+    }
+
+    /**
+     * Point d'entrée de la génération.
+     *
+     * @param args Options {@code -threads} (par défaut le nombre de processeurs), {@code -graine}
+     *             (0 par défaut), {@code -essais} (essais par niveau, 8 par défaut), {@code -noeuds}
+     *             (nœuds développés par résolution, 100000 par défaut), puis la largeur,
+     *             la hauteur, le nombre de caisses, le nombre de niveaux et le chemin du paquet.
+     */
+    public static void main(String[] args) {
+        int nbThreads = Runtime.getRuntime().availableProcessors();
+        long graine = 0;
+        int nbEssais = 8;
+        long limiteNoeuds = 100_000;
+        String[] parametres = new String[5];
+        int nbParametres = 0;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-threads" -> nbThreads = Integer.parseInt(args[++i]);
+                case "-graine" -> graine = Long.parseLong(args[++i]);
+                case "-essais" -> nbEssais = Integer.parseInt(args[++i]);
+                case "-noeuds" -> limiteNoeuds = Long.parseLong(args[++i]);
+                default -> {
+                    if (nbParametres < parametres.length) {
+                        parametres[nbParametres] = args[i];
+                    }
+                    nbParametres++;
+                }
+            }
+        }
+        if (nbParametres != parametres.length) {
+            System.out.println("Utilisation : GenerationDeNiveaux [-threads N] [-graine S] [-essais K] [-noeuds N]"
+                    + " largeur hauteur caisses nombre sortie.sok");
+            return;
+        }
+
+        GenerateurDeNiveaux generateur;
+        try {
+            generateur = new GenerateurDeNiveaux(Integer.parseInt(parametres[0]),
+                    Integer.parseInt(parametres[1]), Integer.parseInt(parametres[2]));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Erreur: " + e.getMessage());
+            return;
+        }
+        int nombre = Integer.parseInt(parametres[3]);
+
+        ExecutorService executeur = Executors.newFixedThreadPool(nbThreads);
+        try (PrintWriter sortie = ouvrir(parametres[4])) {
+            new GenerationDeNiveaux(generateur, nbEssais, limiteNoeuds)
+                    .generer(nombre, graine, executeur, 2 * nbThreads, sortie);
+        } catch (IOException e) {
+            System.out.println("Erreur: Impossible d'écrire le paquet " + parametres[4] + " : " + e.getMessage());
+        } finally {
+            executeur.shutdownNow();
+        }
+    }
+
+    /**
+     * Ouvre la sortie du paquet.
+     *
+     * @param chemin Le chemin du paquet, {@code -} pour la sortie standard.
+     * @return La sortie, en UTF-8.
+     * @throws IOException Si le fichier ne peut pas être créé.
+     */
+    private static PrintWriter ouvrir(String chemin) throws IOException {
+        if (chemin.equals("-")) {
+            return new PrintWriter(new BufferedWriter(
+                    new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16), false);
+        }
+        return new PrintWriter(Files.newBufferedWriter(Path.of(chemin), StandardCharsets.UTF_8), false);
+    }
+
+    /**
+     * Génère un paquet de niveaux et écrit chaque niveau retenu, puis un bilan sur la sortie d'erreur.
+     * Au plus {@code 10 × nombre} niveaux sont tentés, pour s'arrêter même si les paramètres
+     * ne permettent presque jamais de niveau résolu.
+     *
+     * @param nombre Le nombre de niveaux voulus.
+     * @param graine La graine du premier niveau.
+     * @param executeur Les threads de génération.
+     * @param niveauxEnCours Nombre maximal de niveaux lancés mais pas encore écrits.
+     * @param sortie La sortie du paquet.
+     */
+    public void generer(int nombre, long graine, ExecutorService executeur, int niveauxEnCours, PrintWriter sortie) {
+        long debut = System.nanoTime();
+        long maxTentatives = 10L * nombre;
+        ArrayDeque<Future<Candidat>> enCours = new ArrayDeque<>();
+        long tentatives = 0;
+        int ecrits = 0;
+        while (ecrits < nombre && (tentatives < maxTentatives || !enCours.isEmpty())) {
+            // Ne lance que les niveaux qui peuvent encore manquer, pour ne pas calculer pour rien.
+            while (tentatives < maxTentatives && enCours.size() < niveauxEnCours
+                    && ecrits + enCours.size() < nombre) {
+                long graineNiveau = graine + tentatives++;
+                enCours.add(executeur.submit(() -> choisir(graineNiveau)));
+            }
+            Candidat candidat = attendre(enCours.poll());
+            if (candidat != null) {
+                ecrire(++ecrits, candidat, sortie);
+            }
+        }
+        sortie.flush();
+
+        double secondes = (System.nanoTime() - debut) / 1e9;
+        System.err.printf("Niveaux: %d/%d, niveaux tentés: %d, %.2f s%n", ecrits, nombre, tentatives, secondes);
+    }
+
+    /**
+     * Fait les essais d'un niveau et garde le plus difficile de ceux qui sont résolus.
+     *
+     * @param graine La graine de la tentative.
+     * @return Le meilleur essai, ou null si aucun n'a été résolu.
+     */
+    private Candidat choisir(long graine) {
+        Random aleatoire = new Random(graine);
+        Candidat meilleur = null;
+        for (int essai = 0; essai < nbEssais && !Thread.currentThread().isInterrupted(); essai++) {
+            List<String> lignes = generateur.generer(aleatoire);
+            if (lignes == null) {
+                continue;
+            }
+            Solveur solveur = new Solveur();
+            solveur.setLimiteNoeuds(limiteNoeuds);
+            solveur.resoudre(new Niveau(lignes).creerCarte());
+            StatistiquesRecherche stats = solveur.getStatistiques();
+            if (stats.getStatut() != StatutRecherche.RESOLU) {
+                continue;
+            }
+            double difficulte = stats.getNbPoussees() * Math.log10(10 + stats.getNoeudsDeveloppes());
+            if (meilleur == null || difficulte > meilleur.difficulte) {
+                meilleur = new Candidat(lignes, graine, stats.getNbPoussees(), stats.getNoeudsDeveloppes(), difficulte);
+            }
+        }
+        return meilleur;
+    }
+
+    /**
+     * Attend la fin d'un niveau.
+     *
+     * @param resultat Le niveau en cours.
+     * @return Le niveau retenu, ou null si aucun essai n'a été résolu ou en cas d'erreur.
+     */
+    private static Candidat attendre(Future<Candidat> resultat) {
+        try {
+            return resultat.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("Erreur pendant la génération : " + e.getCause());
+        }
+        return null;
+    }
+
+    /**
+     * Écrit un niveau dans le paquet : son numéro, sa graine et sa difficulté en commentaire,
+     * ses lignes, puis une ligne vide.
+     *
+     * @param numero Le numéro du niveau dans le paquet, à partir de 1.
+     * @param candidat Le niveau retenu.
+     * @param sortie La sortie du paquet.
+     */
+    private static void ecrire(int numero, Candidat candidat, PrintWriter sortie) {
+        sortie.println("; " + numero);
+        sortie.printf("; Graine: %d, poussées: %d, nœuds: %d, difficulté: %.1f%n",
+                candidat.graine, candidat.nbPoussees, candidat.noeuds, candidat.difficulte);
+        for (String ligne : candidat.lignes) {
+            sortie.println(ligne);
+        }
+        sortie.println();
+    }
+
+    /**
+     * Essai résolu, avec les mesures de sa résolution.
+     */
+    private static class Candidat {
+
+        /**
+         * Lignes du niveau.
+         */
+        private final List<String> lignes;
+
+        /**
+         * Graine de la tentative dont vient le niveau.
+         */
+        private final long graine;
+
+        /**
+         * Nombre minimal de poussées de la solution.
+         */
+        private final int nbPoussees;
+
+        /**
+         * Nombre de nœuds développés par le solveur.
+         */
+        private final long noeuds;
+
+        /**
+         * Difficulté estimée.
+         */
+        private final double difficulte;
+
+        /**
+         * Constructeur d'un essai résolu.
+         *
+         * @param lignes Les lignes du niveau.
+         * @param graine La graine de la tentative.
+         * @param nbPoussees Le nombre minimal de poussées.
+         * @param noeuds Le nombre de nœuds développés.
+         * @param difficulte La difficulté estimée.
+         */
+        private Candidat(List<String> lignes, long graine, int nbPoussees, long noeuds, double difficulte) {
+            this.lignes = lignes;
+            this.graine = graine;
+            this.nbPoussees = nbPoussees;
+            this.noeuds = noeuds;
+            this.difficulte = difficulte;
+        }
+    }
+}
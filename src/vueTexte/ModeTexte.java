@@ -5,7 +5,8 @@ import java.util.Map;
 import modele.Carte;
 import modele.Direction;
 import modele.GestionnaireDeLevels;
-import modele.Lecture;
+import modele.solveur.ServiceIndices;
+import modele.solveur.StatutRecherche;
 
 /**
  * La classe ModeTexte permet de jouer au jeu Sokoban en mode console.
@@ -23,13 +24,39 @@ public class ModeTexte {
     /** Gestionnaire des niveaux pour naviguer et gérer les différents niveaux. */
     private final GestionnaireDeLevels gestionnaireDeLevels;
 
+    /** Affichage de la carte dans la console, qui ne réécrit que les cases modifiées. */
+    private final RenduTerminal rendu = new RenduTerminal();
+
+    /** Saisie du clavier, lue par blocs sur un thread dédié, touche par touche si possible. */
+    private final EntreeConsole entree = new EntreeConsole(System.in, true);
+
+    /** Durée maximale de la recherche d'un indice, en millisecondes. */
+    private static final long LIMITE_TEMPS_INDICE = 3000;
+
+    /** Recherche en arrière-plan des indices, relancée quand le joueur attend devant une position. */
+    private final ServiceIndices indices = new ServiceIndices(LIMITE_TEMPS_INDICE);
+
+    /** Invite affichée avant la saisie d'une commande. */
+    private static final String INVITE_COMMANDE =
+            "Entrez une direction (z:haut, s:bas, q:gauche, d:droite), u:annuler, y:refaire, h:indice:";
+
     /**
      * Constructeur de la classe ModeTexte.
      * Initialise le gestionnaire de niveaux, configure les directions,
      * et charge le niveau courant.
      */
     public ModeTexte() {
-        this.gestionnaireDeLevels = new GestionnaireDeLevels();
+        this(new GestionnaireDeLevels());
+    }
+
+    /**
+     * Constructeur de la classe ModeTexte avec un gestionnaire de niveaux donné,
+     * par exemple pour jouer les niveaux d'un paquet.
+     *
+     * @param gestionnaireDeLevels Le gestionnaire des niveaux à jouer.
+     */
+    public ModeTexte(GestionnaireDeLevels gestionnaireDeLevels) {
+        this.gestionnaireDeLevels = gestionnaireDeLevels;
         initialiserDirections();
         chargerNiveauCourant();
     }
@@ -47,37 +74,57 @@ public class ModeTexte {
     }
 
     /**
-     * Charge le niveau courant à partir du fichier correspondant, 
+     * Charge le niveau courant à partir du fichier ou du paquet correspondant, 
      * en utilisant le gestionnaire de niveaux.
      */
     private void chargerNiveauCourant() {
         String cheminCarte = gestionnaireDeLevels.getNiveauCourant();
         if (cheminCarte != null) {
-            Lecture lecture = new Lecture(cheminCarte);
-            if (lecture.getNbLignes() > 0) {
-                carte = new Carte(lecture.getLignes());
+            Carte nouvelleCarte = gestionnaireDeLevels.creerCarteNiveauCourant();
+            if (nouvelleCarte != null) {
+                carte = nouvelleCarte;
             } else {
-                System.out.println("Erreur: Impossible de charger le niveau " + cheminCarte);
+                rendu.ecrireLigne("Erreur: Impossible de charger le niveau " + cheminCarte);
             }
         }
     }
 
     /**
      * Lit une direction saisie par l'utilisateur via la console.
-     * L'utilisateur doit entrer l'un des caractères valides (z, q, s, d), 
-     * sinon il est invité à réessayer.
+     * Les commandes qui ne sont pas des directions (u, y, h) sont ignorées.
      *
-     * @return La direction correspondant au caractère saisi.
+     * @return La direction correspondant au caractère saisi, ou null si l'entrée est terminée.
      */
     public Direction lireDirection() {
         char input;
         do {
-            System.out.println("Entrez une direction (z:haut, s:bas, q:gauche, d:droite):");
-            input = Outil.lireCaractere();
-        } while (!directions.containsKey(input));
+            input = lireCommande();
+        } while (!directions.containsKey(input) && input != EntreeConsole.FIN_ENTREE);
         return directions.get(input);
     }
 
+    /**
+     * Lit une commande saisie par l'utilisateur via la console :
+     * une direction (z, q, s, d), l'annulation (u) ou le rétablissement (y) d'un mouvement,
+     * ou la demande d'un indice (h).
+     * L'invite est affichée avec la carte ; elle n'est répétée que si le caractère saisi
+     * n'est pas valide et qu'aucune autre touche n'attend.
+     *
+     * @return Le caractère de la commande saisie, ou {@link EntreeConsole#FIN_ENTREE}
+     *         si l'entrée est terminée.
+     */
+    public char lireCommande() {
+        char input = entree.lireCommande();
+        while (!directions.containsKey(input) && input != 'u' && input != 'y' && input != 'h'
+                && input != EntreeConsole.FIN_ENTREE) {
+            if (!entree.aDesCommandesEnAttente()) {
+                rendu.ecrireLigne(INVITE_COMMANDE);
+            }
+            input = entree.lireCommande();
+        }
+        return input;
+    }
+
     /**
      * Lance la boucle principale du jeu en mode console.
      * L'utilisateur joue niveau par niveau et peut choisir de passer 
@@ -87,14 +134,17 @@ public class ModeTexte {
         boolean continuer = true;
 
         while (continuer) {
-            jouerUnNiveau();
+            if (!jouerUnNiveau()) {
+                break;
+            }
 
             if (gestionnaireDeLevels.estDernierNiveau()) {
-                System.out.println("Félicitations! Vous avez terminé tous les niveaux!");
+                rendu.ecrireLigne("Félicitations! Vous avez terminé tous les niveaux!");
                 continuer = false;
             } else {
-                System.out.println("Niveau terminé! Voulez-vous passer au niveau suivant? (o/n)");
-                char reponse = Outil.lireCaractere();
+                entree.viderCommandes();
+                rendu.ecrireLigne("Niveau terminé! Voulez-vous passer au niveau suivant? (o/n)");
+                char reponse = entree.lireCommande();
                 if (reponse == 'o') {
                     gestionnaireDeLevels.passerAuNiveauSuivant();
                     chargerNiveauCourant();
@@ -103,24 +153,83 @@ public class ModeTexte {
                 }
             }
         }
+        indices.arreter();
+        entree.fermer();
+    }
+
+    /**
+     * Décrit le prochain mouvement conseillé, s'il est déjà connu, ou l'état de sa recherche.
+     * Ne bloque jamais.
+     *
+     * @return Le message à afficher.
+     */
+    private String decrireIndice() {
+        Direction direction = indices.getIndice(carte);
+        if (direction != null) {
+            return "Indice: " + switch (direction) {
+                case HAUT -> "z (haut)";
+                case BAS -> "s (bas)";
+                case GAUCHE -> "q (gauche)";
+                case DROITE -> "d (droite)";
+            };
+        }
+        StatutRecherche statut = indices.getStatut(carte);
+        if (statut == StatutRecherche.INSOLUBLE) {
+            return "Indice: plus de solution depuis cette position, annulez avec u.";
+        }
+        if (statut == StatutRecherche.LIMITE_ATTEINTE) {
+            return "Indice: aucune solution trouvée à temps.";
+        }
+        return "Indice: recherche en cours, réessayez dans un instant.";
     }
 
     /**
      * Joue un niveau en boucle jusqu'à ce qu'il soit terminé.
      * Affiche l'état du niveau à chaque étape et permet à l'utilisateur
-     * de saisir des directions pour déplacer le robot.
+     * de saisir des directions pour déplacer le robot, ou d'annuler et refaire ses mouvements.
+     *
+     * @return true si le niveau est terminé, false si l'entrée s'est terminée avant.
      */
-    private void jouerUnNiveau() {
-        System.out.println("Nouveau niveau chargé: " + gestionnaireDeLevels.getNiveauCourant());
+    private boolean jouerUnNiveau() {
+        rendu.nouveauNiveau();
+        String message = "Nouveau niveau chargé: " + gestionnaireDeLevels.getNiveauCourant();
 
         while (!carte.finDePartie()) {
-            System.out.println(carte);
-            System.out.println("Nombre de mouvements: " + carte.getNbMouvements());
-            Direction direction = lireDirection();
-            carte.deplacerRobot(direction);
+            // Les touches d'une même rafale sont jouées à la suite, avec un seul affichage.
+            if (!entree.aDesCommandesEnAttente()) {
+                // Le joueur va réfléchir : l'indice de cette position est cherché pendant ce temps.
+                indices.positionChangee(carte);
+                rendu.afficher(carte, message,
+                        "Nombre de mouvements: " + carte.getNbMouvements(),
+                        "Caisses placées: " + carte.getNbCaissesPlacees() + "/" + carte.getNbDestinations(),
+                        carte.estEnImpasse() ? "Attention: une caisse est bloquée, le niveau ne peut plus être terminé." : "",
+                        INVITE_COMMANDE);
+                message = "";
+            }
+            char commande = lireCommande();
+            switch (commande) {
+                case EntreeConsole.FIN_ENTREE -> {
+                    return false;
+                }
+                case 'u' -> {
+                    if (!carte.annuler()) {
+                        message = "Aucun mouvement à annuler.";
+                    }
+                }
+                case 'y' -> {
+                    if (!carte.refaire()) {
+                        message = "Aucun mouvement à refaire.";
+                    }
+                }
+                case 'h' -> message = decrireIndice();
+                default -> carte.deplacerRobot(directions.get(commande));
+            }
+            if (commande != 'h') {
+                rendu.noterCasesModifiees(carte);
+            }
         }
 
-        System.out.println(carte);
-        System.out.println("Bravo! Niveau terminé en " + carte.getNbMouvements() + " mouvements!");
+        rendu.afficher(carte, "Bravo! Niveau terminé en " + carte.getNbMouvements() + " mouvements!");
+        return true;
     }
-}
+}
\ No newline at end of file
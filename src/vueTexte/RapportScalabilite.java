@@ -0,0 +1,85 @@
+package vueTexte;
+
+import java.util.ArrayList;
+import java.util.List;
+import modele.Carte;
+import modele.Lecture;
+import modele.solveur.SolveurParallele;
+import modele.solveur.StatistiquesRecherche;
+
+/**
+ * La classe RapportScalabilite mesure l'accélération du solveur parallèle
+ * lorsque le nombre de threads augmente, sur une liste de cartes.
+ * Pour chaque carte, le solveur est lancé avec 1, 2, 4, ... threads jusqu'au
+ * maximum demandé, et un tableau récapitulatif est affiché en mode console.
+ * <p>
+ * Utilisation : {@code java -cp bin vueTexte.RapportScalabilite [-threads N] [-temps ms] carte...}
+ * <br>Sans carte, les niveaux de {@code ./src/map} sont utilisés.
+ */
+public class RapportScalabilite {
+
+    /**
+     * Point d'entrée du rapport de scalabilité.
+     *
+     * @param args Options {@code -threads} (maximum, par défaut le nombre de processeurs),
+     *             {@code -temps} (limite par recherche en millisecondes, 60000 par défaut),
+     *             puis les chemins des cartes.
+     */
+    public static void main(String[] args) {
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        long limiteTemps = 60_000;
+        List<String> cartes = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-threads" -> maxThreads = Integer.parseInt(args[++i]);
+                case "-temps" -> limiteTemps = Long.parseLong(args[++i]);
+                default -> cartes.add(args[i]);
+            }
+        }
+        if (cartes.isEmpty()) {
+            cartes.add("./src/map/map1.txt");
+            cartes.add("./src/map/map2.txt");
+            cartes.add("./src/map/map3.txt");
+        }
+
+        System.out.println("Processeurs disponibles : " + Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-28s %7s %-16s %9s %10s %12s %12s %8s%n", "Carte", "Threads", "Statut",
+                "Poussées", "Nœuds", "États/s", "Temps (ms)", "Accél.");
+        for (String chemin : cartes) {
+            Lecture lecture = new Lecture(chemin);
+            if (lecture.getNbLignes() == 0) {
+                System.out.println("Erreur: Impossible de charger la carte " + chemin);
+                continue;
+            }
+            long reference = 0;
+            for (int threads = 1; threads <= maxThreads; threads = prochainNombreDeThreads(threads, maxThreads)) {
+                SolveurParallele solveur = new SolveurParallele(threads);
+                solveur.setLimiteTemps(limiteTemps);
+                solveur.resoudre(new Carte(lecture.getLignes()));
+                StatistiquesRecherche stats = solveur.getStatistiques();
+                if (threads == 1) {
+                    reference = stats.getDureeNanos();
+                }
+                System.out.printf("%-28s %7d %-16s %9d %10d %12.0f %12d %8.2f%n", chemin, threads,
+                        stats.getStatut(), stats.getNbPoussees(), stats.getNoeudsDeveloppes(),
+                        stats.getEtatsParSeconde(), stats.getDureeNanos() / 1_000_000,
+                        (double) reference / stats.getDureeNanos());
+            }
+        }
+    }
+
+    /**
+     * Calcule le nombre de threads suivant : le double du précédent,
+     * en terminant toujours par le maximum demandé.
+     *
+     * @param threads Le nombre de threads courant.
+     * @param maxThreads Le nombre maximal de threads.
+     * @return Le nombre de threads suivant, supérieur à {@code maxThreads} pour terminer.
+     */
+    private static int prochainNombreDeThreads(int threads, int maxThreads) {
+        if (threads == maxThreads) {
+            return maxThreads + 1;
+        }
+        return Math.min(threads * 2, maxThreads);
+    }
+}
@@ -0,0 +1,252 @@
+package vueTexte;
+
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import modele.Carte;
+
+/**
+ * La classe RenduTerminal affiche une carte dans la console en ne réécrivant que les cases
+ * qui ont changé depuis l'affichage précédent.
+ * <p>
+ * Le dernier affichage est gardé dans un tableau de caractères réutilisé d'un tour à l'autre.
+ * Après chaque mouvement, les cases que la carte signale comme modifiées sont notées par
+ * {@link #noterCasesModifiees(Carte)} : seules ces cases sont comparées et, dans un terminal
+ * compatible ANSI, réécrites à leur place grâce aux séquences de positionnement du curseur.
+ * Le coût d'un tour dépend donc du nombre de cases modifiées et non de la taille de la carte.
+ * L'écran n'est entièrement redessiné qu'au chargement d'un niveau. Tout, y compris
+ * les messages du jeu écrits par {@link #ecrireLigne(String)}, passe par une seule sortie
+ * tamponnée, vidée une fois par tour.
+ * Sans terminal ANSI (sortie redirigée, {@code TERM=dumb}), la carte est réécrite en entier
+ * à chaque tour, comme auparavant.
+ */
+public class RenduTerminal {
+
+    /**
+     * Début des séquences d'échappement ANSI (Control Sequence Introducer).
+     */
+    private static final String CSI = "\u001b[";
+
+    /**
+     * Sortie tamponnée vers la console.
+     */
+    private final Writer sortie;
+
+    /**
+     * Indique si la console comprend les séquences ANSI.
+     */
+    private final boolean ansi;
+
+    /**
+     * Symboles de la carte tels qu'ils sont actuellement affichés, ligne par ligne.
+     */
+    private char[] affichage = new char[0];
+
+    /**
+     * Largeur de la carte affichée.
+     */
+    private int largeur;
+
+    /**
+     * Hauteur de la carte affichée.
+     */
+    private int hauteur;
+
+    /**
+     * Indique que l'écran doit être entièrement redessiné au prochain affichage.
+     */
+    private boolean redessinComplet = true;
+
+    /**
+     * Indices des cases modifiées depuis le dernier affichage, éventuellement en double.
+     */
+    private int[] casesNotees = new int[64];
+
+    /**
+     * Nombre de cases dans {@link #casesNotees}.
+     */
+    private int nbCasesNotees;
+
+    /**
+     * Constructeur par défaut : écrit sur la sortie standard, en mode ANSI si elle est
+     * reliée à un terminal qui n'est pas déclaré {@code dumb}.
+     */
+    public RenduTerminal() {
+        this(new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8), 1 << 16),
+                System.console() != null && !"dumb".equals(System.getenv("TERM")));
+    }
+
+    /**
+     * Constructeur avec une sortie et un mode donnés.
+     *
+     * @param sortie La sortie, de préférence tamponnée.
+     * @param ansi true pour utiliser les séquences ANSI, false pour réécrire toute la carte.
+     */
+    public RenduTerminal(Writer sortie, boolean ansi) {
+        this.sortie = sortie;
+        this.ansi = ansi;
+    }
+
+    /**
+     * Demande un redessin complet de l'écran au prochain affichage, par exemple
+     * au chargement d'un niveau.
+     */
+    public void nouveauNiveau() {
+        redessinComplet = true;
+        nbCasesNotees = 0;
+    }
+
+    /**
+     * Note les cases modifiées par le dernier mouvement de la carte, pour les réécrire
+     * au prochain affichage. Doit être appelée après chaque mouvement, annulation ou rétablissement.
+     *
+     * @param carte La carte qui vient de changer.
+     */
+    public void noterCasesModifiees(Carte carte) {
+        int n = carte.getNbCasesModifiees();
+        if (nbCasesNotees + n > casesNotees.length) {
+            casesNotees = Arrays.copyOf(casesNotees, Math.max(casesNotees.length * 2, nbCasesNotees + n));
+        }
+        for (int rang = 0; rang < n; rang++) {
+            casesNotees[nbCasesNotees++] = carte.getYCaseModifiee(rang) * carte.getLargeur()
+                    + carte.getXCaseModifiee(rang);
+        }
+    }
+
+    /**
+     * Écrit une ligne de texte sous l'affichage courant et vide la sortie, par exemple
+     * une question posée au joueur. Passer par le rendu garde l'ordre des écritures.
+     *
+     * @param ligne La ligne à écrire.
+     */
+    public void ecrireLigne(String ligne) {
+        try {
+            sortie.write(ligne);
+            sortie.write(ansi ? CSI + "K\n" : "\n");
+            sortie.flush();
+        } catch (IOException e) {
+            System.err.println("Erreur d'affichage : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Affiche la carte puis des lignes d'état sous la carte, et vide la sortie.
+     * Le curseur reste sous la dernière ligne d'état, pour la saisie suivante.
+     *
+     * @param carte La carte à afficher.
+     * @param lignesEtat Les lignes d'état (mouvements, messages, invite de saisie) ;
+     *                   les lignes vides sont ignorées.
+     */
+    public void afficher(Carte carte, String... lignesEtat) {
+        try {
+            if (!ansi) {
+                afficherSansAnsi(carte, lignesEtat);
+            } else {
+                if (redessinComplet || carte.getLargeur() != largeur || carte.getHauteur() != hauteur) {
+                    redessinerTout(carte);
+                } else {
+                    redessinerCasesModifiees(carte);
+                }
+                sortie.write(CSI + (hauteur + 2) + ";1H");
+                for (String ligne : lignesEtat) {
+                    if (!ligne.isEmpty()) {
+                        sortie.write(ligne);
+                        sortie.write(CSI + "K\n");
+                    }
+                }
+                sortie.write(CSI + "J");
+            }
+            sortie.flush();
+        } catch (IOException e) {
+            System.err.println("Erreur d'affichage : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Efface l'écran et écrit toute la carte, en mémorisant ses symboles.
+     *
+     * @param carte La carte à afficher.
+     * @throws IOException Si l'écriture échoue.
+     */
+    private void redessinerTout(Carte carte) throws IOException {
+        largeur = carte.getLargeur();
+        hauteur = carte.getHauteur();
+        if (affichage.length < largeur * hauteur) {
+            affichage = new char[largeur * hauteur];
+        }
+        sortie.write(CSI + "H" + CSI + "2J");
+        for (int y = 0; y < hauteur; y++) {
+            int debut = y * largeur;
+            for (int x = 0; x < largeur; x++) {
+                affichage[debut + x] = carte.getSymbole(x, y);
+            }
+            sortie.write(affichage, debut, largeur);
+            sortie.write('\n');
+        }
+        redessinComplet = false;
+        nbCasesNotees = 0;
+    }
+
+    /**
+     * Réécrit uniquement les cases notées dont le symbole a changé, en plaçant le curseur
+     * sur chacune. Une case qui suit directement la précédente sur la même ligne est écrite
+     * sans repositionner le curseur.
+     *
+     * @param carte La carte à afficher.
+     * @throws IOException Si l'écriture échoue.
+     */
+    private void redessinerCasesModifiees(Carte carte) throws IOException {
+        int curseur = -1;
+        for (int i = 0; i < nbCasesNotees; i++) {
+            int indice = casesNotees[i];
+            int x = indice % largeur;
+            int y = indice / largeur;
+            char symbole = carte.getSymbole(x, y);
+            if (symbole != affichage[indice]) {
+                if (curseur != indice) {
+                    sortie.write(CSI + (y + 1) + ";" + (x + 1) + "H");
+                }
+                sortie.write(symbole);
+                affichage[indice] = symbole;
+                curseur = x + 1 < largeur ? indice + 1 : -1;
+            }
+        }
+        nbCasesNotees = 0;
+    }
+
+    /**
+     * Écrit toute la carte puis les lignes d'état, sans séquence ANSI.
+     *
+     * @param carte La carte à afficher.
+     * @param lignesEtat Les lignes d'état.
+     * @throws IOException Si l'écriture échoue.
+     */
+    private void afficherSansAnsi(Carte carte, String... lignesEtat) throws IOException {
+        nbCasesNotees = 0;
+        largeur = carte.getLargeur();
+        hauteur = carte.getHauteur();
+        if (affichage.length < largeur) {
+            affichage = new char[largeur];
+        }
+        for (int y = 0; y < hauteur; y++) {
+            for (int x = 0; x < largeur; x++) {
+                affichage[x] = carte.getSymbole(x, y);
+            }
+            sortie.write(affichage, 0, largeur);
+            sortie.write('\n');
+        }
+        sortie.write('\n');
+        for (String ligne : lignesEtat) {
+            if (!ligne.isEmpty()) {
+                sortie.write(ligne);
+                sortie.write('\n');
+            }
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package vueTexte;
 
+import java.io.IOException;
+import modele.GestionnaireDeLevels;
+import modele.PaquetDeNiveaux;
+
 /**
  * La classe SokobanTexte est le point d'entrée pour lancer le jeu Sokoban en mode texte.
  * Elle utilise la classe {@link ModeTexte} pour gérer l'exécution et l'interactivité 
@@ -10,11 +14,25 @@ public class SokobanTexte {
     /**
      * Méthode principale (point d'entrée) pour exécuter le jeu Sokoban en mode texte.
      * 
-     * @param args Les arguments passés en ligne de commande (non utilisés ici).
+     * @param args Les arguments passés en ligne de commande : le chemin d'un paquet
+     *             de niveaux {@code .sok} / {@code .xsb}, facultatif.
      */
     public static void main(String[] args) {
+        GestionnaireDeLevels gestionnaireDeLevels = new GestionnaireDeLevels();
+        if (args.length > 0) {
+            try {
+                gestionnaireDeLevels = new GestionnaireDeLevels(new PaquetDeNiveaux(args[0]));
+            } catch (IOException e) {
+                System.out.println("Erreur: Impossible d'ouvrir le paquet " + args[0] + " : " + e.getMessage());
+                return;
+            }
+            if (gestionnaireDeLevels.getNbNiveaux() == 0) {
+                System.out.println("Erreur: Aucun niveau dans le paquet " + args[0]);
+                return;
+            }
+        }
         // Création d'une instance de ModeTexte pour gérer le jeu en mode console.
-        ModeTexte modeTexte = new ModeTexte();
+        ModeTexte modeTexte = new ModeTexte(gestionnaireDeLevels);
         // Lancement de la partie.
         modeTexte.lancerPartie();
     }
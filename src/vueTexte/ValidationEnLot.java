@@ -0,0 +1,316 @@
+package vueTexte;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import modele.Carte;
+import modele.Niveau;
+import modele.PaquetDeNiveaux;
+import modele.Rejeu;
+
+/**
+ * La classe ValidationEnLot vérifie en mode console, sans interface, des solutions
+ * en notation LURD pour les niveaux d'un paquet.
+ * <p>
+ * Chaque ligne d'un fichier de solutions contient le numéro du niveau dans le paquet
+ * (à partir de 1), puis la solution : {@code 12 rrDDlluR}. Les lignes vides et celles
+ * commençant par {@code ;} sont ignorées. Le chemin {@code -} désigne l'entrée standard.
+ * <p>
+ * Les lignes sont lues par blocs et rejouées en parallèle. Un nombre limité de blocs est
+ * en cours à la fois, et les résultats sont écrits dans l'ordre de lecture dès que leur bloc
+ * est terminé : la mémoire utilisée ne dépend pas du nombre de solutions.
+ * <p>
+ * Utilisation : {@code java -cp bin vueTexte.ValidationEnLot [-threads N] paquet.sok solutions...}
+ */
+public class ValidationEnLot {
+
+    /**
+     * Nombre de solutions par bloc confié à un thread.
+     */
+    private static final int TAILLE_BLOC = 1024;
+
+    /**
+     * Paquet contenant les niveaux des solutions.
+     */
+    private final PaquetDeNiveaux paquet;
+
+    /**
+     * Niveaux du paquet déjà analysés, immuables et partagés entre les threads.
+     */
+    private final ConcurrentHashMap<Integer, Niveau> niveaux = new ConcurrentHashMap<>();
+
+    /**
+     * Constructeur d'un validateur pour un paquet de niveaux.
+     *
+     * @param paquet Le paquet contenant les niveaux.
+     */
+    public ValidationEnLot(PaquetDeNiveaux paquet) {
+        this.paquet = paquet;
+    }
+
+    /**
+     * Point d'entrée de la validation en lot.
+     *
+     * @param args Option {@code -threads} (par défaut le nombre de processeurs), puis le chemin
+     *             du paquet et les chemins des fichiers de solutions.
+     */
+    public static void main(String[] args) {
+        int nbThreads = Runtime.getRuntime().availableProcessors();
+        List<String> chemins = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-threads")) {
+                nbThreads = Integer.parseInt(args[++i]);
+            } else {
+                chemins.add(args[i]);
+            }
+        }
+        if (chemins.size() < 2) {
+            System.out.println("Utilisation : ValidationEnLot [-threads N] paquet.sok solutions...");
+            return;
+        }
+
+        PaquetDeNiveaux paquet;
+        try {
+            paquet = new PaquetDeNiveaux(chemins.get(0));
+        } catch (IOException e) {
+            System.out.println("Erreur: Impossible d'ouvrir le paquet " + chemins.get(0) + " : " + e.getMessage());
+            return;
+        }
+
+        PrintWriter sortie = new PrintWriter(new BufferedWriter(
+                new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16), false);
+        ExecutorService executeur = Executors.newFixedThreadPool(nbThreads);
+        try {
+            new ValidationEnLot(paquet).valider(chemins.subList(1, chemins.size()), executeur, 2 * nbThreads, sortie);
+        } finally {
+            executeur.shutdownNow();
+            sortie.flush();
+        }
+    }
+
+    /**
+     * Valide les solutions de plusieurs fichiers et écrit un résultat par solution, puis un bilan.
+     *
+     * @param fichiers Les chemins des fichiers de solutions, {@code -} pour l'entrée standard.
+     * @param executeur Les threads qui rejouent les blocs de solutions.
+     * @param blocsEnCours Nombre maximal de blocs lus mais dont le résultat n'est pas encore écrit.
+     * @param sortie La sortie des résultats.
+     */
+    public void valider(List<String> fichiers, ExecutorService executeur, int blocsEnCours, PrintWriter sortie) {
+        long debut = System.nanoTime();
+        Bilan bilan = new Bilan();
+        ArrayDeque<Future<Bloc>> enCours = new ArrayDeque<>();
+        for (String fichier : fichiers) {
+            try (BufferedReader lecteur = fichier.equals("-")
+                    ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                    : Files.newBufferedReader(Path.of(fichier), StandardCharsets.UTF_8)) {
+                List<Solution> bloc = new ArrayList<>(TAILLE_BLOC);
+                int numeroLigne = 0;
+                String ligne;
+                while ((ligne = lecteur.readLine()) != null) {
+                    numeroLigne++;
+                    String texte = ligne.strip();
+                    if (texte.isEmpty() || texte.startsWith(";")) {
+                        continue;
+                    }
+                    bloc.add(new Solution(fichier + ":" + numeroLigne, texte));
+                    if (bloc.size() == TAILLE_BLOC) {
+                        soumettre(bloc, executeur, enCours, blocsEnCours, bilan, sortie);
+                        bloc = new ArrayList<>(TAILLE_BLOC);
+                    }
+                }
+                if (!bloc.isEmpty()) {
+                    soumettre(bloc, executeur, enCours, blocsEnCours, bilan, sortie);
+                }
+            } catch (IOException e) {
+                System.err.println("Le fichier n'est pas correct : " + e.getMessage());
+            }
+        }
+        while (!enCours.isEmpty()) {
+            ecrire(enCours.poll(), bilan, sortie);
+        }
+
+        double secondes = (System.nanoTime() - debut) / 1e9;
+        sortie.printf("Solutions: %d, valides: %d, invalides: %d, %.2f s, %.0f solutions/s%n",
+                bilan.nbSolutions, bilan.nbValides, bilan.nbSolutions - bilan.nbValides, secondes,
+                secondes == 0 ? 0 : bilan.nbSolutions / secondes);
+    }
+
+    /**
+     * Confie un bloc de solutions aux threads, après avoir écrit le résultat du plus ancien bloc
+     * si le nombre maximal de blocs en cours est atteint.
+     *
+     * @param bloc Les solutions du bloc.
+     * @param executeur Les threads de validation.
+     * @param enCours Les blocs en cours, dans l'ordre de lecture.
+     * @param blocsEnCours Nombre maximal de blocs en cours.
+     * @param bilan Le bilan à compléter.
+     * @param sortie La sortie des résultats.
+     */
+    private void soumettre(List<Solution> bloc, ExecutorService executeur, ArrayDeque<Future<Bloc>> enCours,
+            int blocsEnCours, Bilan bilan, PrintWriter sortie) {
+        if (enCours.size() >= blocsEnCours) {
+            ecrire(enCours.poll(), bilan, sortie);
+        }
+        enCours.add(executeur.submit(() -> validerBloc(bloc)));
+    }
+
+    /**
+     * Attend la fin d'un bloc et écrit ses résultats.
+     *
+     * @param resultat Le bloc en cours.
+     * @param bilan Le bilan à compléter.
+     * @param sortie La sortie des résultats.
+     */
+    private void ecrire(Future<Bloc> resultat, Bilan bilan, PrintWriter sortie) {
+        try {
+            Bloc bloc = resultat.get();
+            for (String ligne : bloc.resultats) {
+                sortie.println(ligne);
+            }
+            bilan.nbSolutions += bloc.resultats.length;
+            bilan.nbValides += bloc.nbValides;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("Erreur pendant la validation : " + e.getCause());
+        }
+    }
+
+    /**
+     * Rejoue toutes les solutions d'un bloc. Une erreur imprévue sur une ligne la rend
+     * invalide sans faire perdre les autres lignes du bloc.
+     *
+     * @param solutions Les solutions du bloc.
+     * @return Les résultats du bloc, dans l'ordre des solutions.
+     */
+    private Bloc validerBloc(List<Solution> solutions) {
+        Bloc bloc = new Bloc(solutions.size());
+        for (int i = 0; i < bloc.resultats.length; i++) {
+            Solution solution = solutions.get(i);
+            try {
+                bloc.resultats[i] = validerLigne(solution, bloc);
+            } catch (RuntimeException e) {
+                bloc.resultats[i] = solution.origine + " ? INVALIDE 0 0 erreur : " + e;
+            }
+        }
+        return bloc;
+    }
+
+    /**
+     * Rejoue une solution et décrit le résultat.
+     *
+     * @param solution La solution lue, avec son origine.
+     * @param bloc Le bloc dont le nombre de solutions valides est tenu à jour.
+     * @return {@code origine niveau VALIDE|INVALIDE mouvements poussées [cause]}.
+     */
+    private String validerLigne(Solution solution, Bloc bloc) {
+        String origine = solution.origine;
+        String reste = solution.texte;
+        int finNumero = 0;
+        while (finNumero < reste.length() && Character.isDigit(reste.charAt(finNumero))) {
+            finNumero++;
+        }
+        if (finNumero == 0 || finNumero > 9) {
+            return origine + " ? INVALIDE 0 0 numéro de niveau absent";
+        }
+        int numero = Integer.parseInt(reste.substring(0, finNumero));
+        if (numero < 1 || numero > paquet.getNbNiveaux()) {
+            return origine + " " + numero + " INVALIDE 0 0 niveau absent du paquet";
+        }
+        Niveau niveau = niveaux.computeIfAbsent(numero - 1, n -> new Niveau(paquet.getLignes(n)));
+        Carte carte = niveau.creerCarte();
+        if (carte.getRobot() == null) {
+            return origine + " " + numero + " INVALIDE 0 0 niveau sans robot";
+        }
+        Rejeu rejeu = Rejeu.rejouer(carte, reste.substring(finNumero));
+        if (rejeu.estValide()) {
+            bloc.nbValides++;
+        }
+        return origine + " " + numero + (rejeu.estValide() ? " VALIDE " : " INVALIDE ")
+                + rejeu.getNbMouvements() + " " + rejeu.getNbPoussees()
+                + (rejeu.estValide() ? "" : " " + rejeu.getErreur());
+    }
+
+    /**
+     * Ligne d'un fichier de solutions, gardée avec son origine.
+     */
+    private static class Solution {
+
+        /**
+         * Origine de la ligne : {@code fichier:ligne}. Le chemin du fichier peut contenir des espaces.
+         */
+        private final String origine;
+
+        /**
+         * Texte de la ligne : le numéro du niveau puis la solution.
+         */
+        private final String texte;
+
+        /**
+         * Constructeur d'une ligne de solution.
+         *
+         * @param origine L'origine de la ligne.
+         * @param texte Le texte de la ligne, sans les blancs de début et de fin.
+         */
+        private Solution(String origine, String texte) {
+            this.origine = origine;
+            this.texte = texte;
+        }
+    }
+
+    /**
+     * Résultats d'un bloc de solutions, remplis par le thread qui rejoue le bloc.
+     */
+    private static class Bloc {
+
+        /**
+         * Ligne de résultat de chaque solution du bloc.
+         */
+        private final String[] resultats;
+
+        /**
+         * Nombre de solutions valides du bloc.
+         */
+        private int nbValides;
+
+        /**
+         * Constructeur d'un bloc de résultats.
+         *
+         * @param taille Le nombre de solutions du bloc.
+         */
+        private Bloc(int taille) {
+            resultats = new String[taille];
+        }
+    }
+
+    /**
+     * Compteurs du bilan de la validation, tenus par le thread qui écrit les résultats.
+     */
+    private static class Bilan {
+
+        /**
+         * Nombre de solutions traitées.
+         */
+        private long nbSolutions;
+
+        /**
+         * Nombre de solutions valides.
+         */
+        private long nbValides;
+    }
+}